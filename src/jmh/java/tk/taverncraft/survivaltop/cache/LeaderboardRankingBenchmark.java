@@ -0,0 +1,72 @@
+package tk.taverncraft.survivaltop.cache;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures ranking every entity at the end of a leaderboard update and looking up the position
+ * of an entity outside of the shown positions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class LeaderboardRankingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int entities;
+
+    @Param({"10", "-1"})
+    public int limit;
+
+    private HashMap<String, EntityCache> entityCaches;
+    private LeaderboardRanking ranking;
+    private double[] lookups;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(0);
+        entityCaches = new HashMap<>();
+        lookups = new double[1024];
+        for (int i = 0; i < entities; i++) {
+            String name = "PLAYER" + i;
+            // wealth is skewed so few entities hold most of it, as on a real server
+            double wealth = Math.pow(random.nextDouble(), 4) * 1000000;
+            entityCaches.put(name, new EntityCache(name, wealth, new LinkedHashMap<>(),
+                    wealth / 2, 0, wealth / 4, 0));
+        }
+        for (int i = 0; i < lookups.length; i++) {
+            lookups[i] = Math.pow(random.nextDouble(), 4) * 1000000;
+        }
+        ranking = LeaderboardRanking.rank(entityCaches, limit);
+    }
+
+    @Benchmark
+    public LeaderboardRanking rank() {
+        return LeaderboardRanking.rank(entityCaches, limit);
+    }
+
+    @Benchmark
+    public int getPosition() {
+        double wealth = lookups[next];
+        next = (next + 1) & (lookups.length - 1);
+        return ranking.getPosition(wealth);
+    }
+}
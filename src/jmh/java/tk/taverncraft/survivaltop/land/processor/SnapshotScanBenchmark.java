@@ -0,0 +1,112 @@
+package tk.taverncraft.survivaltop.land.processor;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tk.taverncraft.survivaltop.land.processor.consumers.BlockConsumer;
+import tk.taverncraft.survivaltop.utils.types.ChunkRegion;
+import tk.taverncraft.survivaltop.utils.types.MaterialWorthTable;
+
+/**
+ * Measures scanning a chunk snapshot into the block consumer, reported as chunks per second
+ * along with the number of blocks scanned per second. Spawner and container consumers are not
+ * included since they need a running plugin to look up live blocks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class SnapshotScanBenchmark {
+    private static final int CHUNKS = 16;
+
+    @Param({"64", "120"})
+    public int surfaceY;
+
+    @Param({"0.0", "0.1"})
+    public double caveRatio;
+
+    @Param({"true", "false"})
+    public boolean useHeightmap;
+
+    private ChunkSnapshot[] snapshots;
+    private ChunkRegion region;
+    private LandOperation[] operations;
+    private int next;
+
+    /**
+     * Number of blocks scanned, reported by JMH as a rate next to the chunk throughput.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ScanCounters {
+        public long blocks;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            blocks = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        snapshots = new ChunkSnapshot[CHUNKS];
+        for (int i = 0; i < CHUNKS; i++) {
+            snapshots[i] = new StubChunkSnapshot(i, surfaceY, caveRatio);
+        }
+        World world = StubWorlds.create(0, 256);
+        region = new ChunkRegion(world, 0, 0, 0, 16, 0, 256, 0, 16);
+
+        BlockConsumer blockConsumer = new BlockConsumer(new MaterialWorthTable(getBlockWorth()));
+        blockConsumer.createHolder(0);
+        operations = new LandOperation[]{blockConsumer.getOperation(0)};
+    }
+
+    @Benchmark
+    public long scanChunk(ScanCounters counters) {
+        ChunkSnapshot snapshot = snapshots[next];
+        next = (next + 1) % CHUNKS;
+        long blocks = LandProcessor.scanChunkSnapshot(operations, region, snapshot,
+                useHeightmap, () -> false);
+        counters.blocks += blocks;
+        return blocks;
+    }
+
+    /**
+     * Gets block values similar to the default blocks config.
+     *
+     * @return map of material names to their values
+     */
+    static LinkedHashMap<String, Double> getBlockWorth() {
+        LinkedHashMap<String, Double> worth = new LinkedHashMap<>();
+        worth.put(Material.COAL_ORE.name(), 1.0);
+        worth.put(Material.IRON_ORE.name(), 2.0);
+        worth.put(Material.GOLD_ORE.name(), 5.0);
+        worth.put(Material.REDSTONE_ORE.name(), 2.0);
+        worth.put(Material.DIAMOND_ORE.name(), 20.0);
+        worth.put(Material.DIAMOND_BLOCK.name(), 180.0);
+        worth.put(Material.IRON_BLOCK.name(), 18.0);
+        worth.put(Material.GOLD_BLOCK.name(), 45.0);
+        worth.put(Material.EMERALD_BLOCK.name(), 90.0);
+        worth.put(Material.BEACON.name(), 500.0);
+        return worth;
+    }
+}
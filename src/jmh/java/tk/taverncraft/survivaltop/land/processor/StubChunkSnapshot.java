@@ -0,0 +1,162 @@
+package tk.taverncraft.survivaltop.land.processor;
+
+import java.util.Random;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.block.Biome;
+import org.bukkit.block.data.BlockData;
+
+/**
+ * In-memory chunk snapshot for benchmarks, filled with a layered overworld-like distribution of
+ * materials. Only the methods used while scanning return meaningful values.
+ */
+public class StubChunkSnapshot implements ChunkSnapshot {
+    private static final int HEIGHT = 256;
+
+    private final Material[] blocks = new Material[16 * HEIGHT * 16];
+    private final int[] highestBlocks = new int[16 * 16];
+    private final boolean[] emptySections = new boolean[HEIGHT >> 4];
+
+    /**
+     * Constructor for StubChunkSnapshot.
+     *
+     * @param seed seed for placing ores, caves and terrain height
+     * @param surfaceY average y coordinate of the surface
+     * @param caveRatio fraction of underground blocks replaced by cave air
+     */
+    public StubChunkSnapshot(long seed, int surfaceY, double caveRatio) {
+        Random random = new Random(seed);
+        for (int x = 0; x < 16; x++) {
+            for (int z = 0; z < 16; z++) {
+                int surface = surfaceY + random.nextInt(5) - 2;
+                highestBlocks[x * 16 + z] = surface;
+                for (int y = 0; y < HEIGHT; y++) {
+                    blocks[index(x, y, z)] = getMaterial(random, y, surface, caveRatio);
+                }
+            }
+        }
+        for (int section = 0; section < emptySections.length; section++) {
+            boolean empty = true;
+            for (int x = 0; x < 16 && empty; x++) {
+                for (int z = 0; z < 16 && empty; z++) {
+                    for (int y = section << 4; y < (section + 1) << 4 && empty; y++) {
+                        empty = blocks[index(x, y, z)] == Material.AIR;
+                    }
+                }
+            }
+            emptySections[section] = empty;
+        }
+    }
+
+    /**
+     * Picks the material at a height, with bedrock at the bottom, stone with ores and caves
+     * below the surface, a few layers of dirt and grass on top, and air above.
+     */
+    private static Material getMaterial(Random random, int y, int surface, double caveRatio) {
+        if (y == 0 || (y < 5 && random.nextInt(y + 1) == 0)) {
+            return Material.BEDROCK;
+        }
+        if (y > surface) {
+            return Material.AIR;
+        }
+        if (y == surface) {
+            return Material.GRASS_BLOCK;
+        }
+        if (y > surface - 4) {
+            return Material.DIRT;
+        }
+        if (random.nextDouble() < caveRatio) {
+            return y < 11 ? Material.LAVA : Material.CAVE_AIR;
+        }
+        int roll = random.nextInt(1000);
+        if (roll < 12) {
+            return Material.COAL_ORE;
+        } else if (roll < 19) {
+            return Material.IRON_ORE;
+        } else if (roll < 21 && y < 32) {
+            return Material.GOLD_ORE;
+        } else if (roll < 24 && y < 16) {
+            return Material.REDSTONE_ORE;
+        } else if (roll < 25 && y < 16) {
+            return Material.DIAMOND_ORE;
+        } else if (roll < 60) {
+            return Material.GRAVEL;
+        } else if (roll < 140) {
+            return y < 64 ? Material.ANDESITE : Material.GRANITE;
+        }
+        return Material.STONE;
+    }
+
+    private static int index(int x, int y, int z) {
+        return (y << 8) | (x << 4) | z;
+    }
+
+    public Material getBlockType(int x, int y, int z) {
+        return blocks[index(x, y, z)];
+    }
+
+    public int getHighestBlockYAt(int x, int z) {
+        return highestBlocks[x * 16 + z];
+    }
+
+    public boolean isSectionEmpty(int sy) {
+        return emptySections[sy];
+    }
+
+    public int getX() {
+        return 0;
+    }
+
+    public int getZ() {
+        return 0;
+    }
+
+    public String getWorldName() {
+        return "benchmark";
+    }
+
+    public BlockData getBlockData(int x, int y, int z) {
+        throw new UnsupportedOperationException();
+    }
+
+    public int getData(int x, int y, int z) {
+        return 0;
+    }
+
+    public int getBlockSkyLight(int x, int y, int z) {
+        return 15;
+    }
+
+    public int getBlockEmittedLight(int x, int y, int z) {
+        return 0;
+    }
+
+    public Biome getBiome(int x, int z) {
+        return Biome.PLAINS;
+    }
+
+    public Biome getBiome(int x, int y, int z) {
+        return Biome.PLAINS;
+    }
+
+    public double getRawBiomeTemperature(int x, int z) {
+        return 0.8;
+    }
+
+    public double getRawBiomeTemperature(int x, int y, int z) {
+        return 0.8;
+    }
+
+    public double getRawBiomeRainfall(int x, int z) {
+        return 0.4;
+    }
+
+    public long getCaptureFullTime() {
+        return 0;
+    }
+
+    public boolean contains(BlockData block) {
+        return false;
+    }
+}
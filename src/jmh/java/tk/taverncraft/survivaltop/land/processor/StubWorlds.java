@@ -0,0 +1,46 @@
+package tk.taverncraft.survivaltop.land.processor;
+
+import java.lang.reflect.Proxy;
+import java.util.UUID;
+
+import org.bukkit.World;
+
+/**
+ * Creates worlds for benchmarks. Scans only ask a world for its name, uid and height once per
+ * chunk, so a proxy is used rather than implementing every method of the interface.
+ */
+public class StubWorlds {
+    private static final UUID WORLD_UID = UUID.nameUUIDFromBytes("benchmark".getBytes());
+
+    /**
+     * Creates a world with the given height range.
+     *
+     * @param minHeight lowest y coordinate of the world
+     * @param maxHeight y coordinate above the highest block of the world
+     *
+     * @return stub world
+     */
+    public static World create(int minHeight, int maxHeight) {
+        return (World) Proxy.newProxyInstance(World.class.getClassLoader(),
+                new Class<?>[]{World.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getName":
+                        return "benchmark";
+                    case "getUID":
+                        return WORLD_UID;
+                    case "getMinHeight":
+                        return minHeight;
+                    case "getMaxHeight":
+                        return maxHeight;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "toString":
+                        return "StubWorld";
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
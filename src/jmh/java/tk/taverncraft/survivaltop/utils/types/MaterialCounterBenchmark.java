@@ -0,0 +1,115 @@
+package tk.taverncraft.survivaltop.utils.types;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Material;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures counting materials with the ordinal indexed counter, against counting into a map
+ * keyed by material name as holders used to.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MaterialCounterBenchmark {
+    private static final int BLOCKS = 4096;
+
+    @Param({"10", "200"})
+    public int worthEntries;
+
+    private MaterialWorthTable worthTable;
+    private MaterialCounter counter;
+    private MaterialCounter otherCounter;
+    private HashMap<String, MutableInt> nameCounter;
+    private Material[] blocks;
+
+    @Setup
+    public void setUp() {
+        LinkedHashMap<String, Double> worthMap = new LinkedHashMap<>();
+        Material[] valuedMaterials = new Material[worthEntries];
+        int count = 0;
+        for (Material material : Material.values()) {
+            if (count == worthEntries) {
+                break;
+            }
+            if (material.isBlock() && material != Material.STONE
+                    && !material.name().startsWith("LEGACY_")) {
+                worthMap.put(material.name(), (double) count + 1);
+                valuedMaterials[count++] = material;
+            }
+        }
+        worthTable = new MaterialWorthTable(worthMap);
+        counter = new MaterialCounter(worthTable);
+        otherCounter = new MaterialCounter(worthTable);
+        nameCounter = new HashMap<>();
+        for (String name : worthMap.keySet()) {
+            nameCounter.put(name, new MutableInt());
+        }
+
+        // mostly blocks without worth, as in a real scan
+        Random random = new Random(0);
+        blocks = new Material[BLOCKS];
+        for (int i = 0; i < BLOCKS; i++) {
+            blocks[i] = random.nextInt(100) < 5
+                    ? valuedMaterials[random.nextInt(count)]
+                    : Material.STONE;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOCKS)
+    public MaterialCounter countByOrdinal() {
+        for (Material material : blocks) {
+            if (worthTable.contains(material)) {
+                counter.increment(material);
+            }
+        }
+        return counter;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BLOCKS)
+    public HashMap<String, MutableInt> countByName() {
+        for (Material material : blocks) {
+            MutableInt count = nameCounter.get(material.name());
+            if (count != null) {
+                count.increment();
+            }
+        }
+        return nameCounter;
+    }
+
+    @Benchmark
+    public double totalWorth() {
+        return counter.getTotalWorth();
+    }
+
+    @Benchmark
+    public MaterialCounter merge() {
+        counter.merge(otherCounter);
+        return counter;
+    }
+
+    @Benchmark
+    public HashMap<String, MutableInt> toCounterMap() {
+        return counter.toCounterMap();
+    }
+}
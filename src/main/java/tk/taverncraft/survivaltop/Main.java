@@ -13,10 +13,12 @@ import net.milkbowl.vault.permission.Permission;
 
 import tk.taverncraft.survivaltop.balance.BalanceManager;
 import tk.taverncraft.survivaltop.cache.CacheManager;
+import tk.taverncraft.survivaltop.events.land.LandChangeEvent;
 import tk.taverncraft.survivaltop.events.leaderboard.SignBreakEvent;
 import tk.taverncraft.survivaltop.events.leaderboard.SignPlaceEvent;
 import tk.taverncraft.survivaltop.events.stats.ViewPageEvent;
 import tk.taverncraft.survivaltop.group.GroupManager;
+import tk.taverncraft.survivaltop.history.HistoryManager;
 import tk.taverncraft.survivaltop.inventory.InventoryManager;
 import tk.taverncraft.survivaltop.land.LandManager;
 import tk.taverncraft.survivaltop.commands.CommandParser;
@@ -54,6 +56,7 @@ public class Main extends JavaPlugin {
     private StatsManager statsManager;
     private LeaderboardManager leaderboardManager;
     private StorageManager storageManager;
+    private HistoryManager historyManager;
     private CacheManager cacheManager;
     private TaskManager taskManager;
     private LogManager logManager;
@@ -69,8 +72,11 @@ public class Main extends JavaPlugin {
     @Override
     public void onDisable() {
         taskManager.stopAllTasks();
+        taskManager.shutdown();
         landManager.setStopOperations(true);
+        landManager.shutdown();
         inventoryManager.setStopOperations(true);
+        storageManager.shutdown();
         LogManager.info(String.format("Disabled Version %s", getDescription().getVersion()));
     }
 
@@ -99,6 +105,7 @@ public class Main extends JavaPlugin {
         try {
             this.dependencyManager = new DependencyManager(this);
             this.storageManager = new StorageManager(this);
+            this.historyManager = new HistoryManager(this);
             this.cacheManager = new CacheManager(this);
             this.statsManager = new StatsManager(this);
             this.leaderboardManager = new LeaderboardManager(this);
@@ -132,6 +139,10 @@ public class Main extends JavaPlugin {
                     new DependencyLoadEvent(this), this);
         }
 
+        if (options.isLoadLeaderboardOnStart()) {
+            leaderboardManager.loadLeaderboardFromStorage();
+        }
+
         if (options.updateOnStart()) {
             leaderboardManager.scheduleLeaderboardUpdate(options.getUpdateInterval(), 3);
         } else {
@@ -145,6 +156,8 @@ public class Main extends JavaPlugin {
                 new SignBreakEvent(this), this);
         this.getServer().getPluginManager().registerEvents(
                 new ViewPageEvent(this), this);
+        this.getServer().getPluginManager().registerEvents(
+                new LandChangeEvent(this), this);
     }
 
     /**
@@ -231,6 +244,10 @@ public class Main extends JavaPlugin {
         return storageManager;
     }
 
+    public HistoryManager getHistoryManager() {
+        return historyManager;
+    }
+
     public LogManager getLogManager() {
         return logManager;
     }
@@ -1,12 +1,12 @@
 package tk.taverncraft.survivaltop.cache;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicReference;
 
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.gui.types.StatsGui;
@@ -23,12 +23,16 @@ public class CacheManager {
     // leaderboard cache
     private ConcurrentHashMap<String, EntityCache> leaderboardCacheMap;
 
-    // maps below are used for papi
-    private ConcurrentHashMap<String, EntityCache> entityCacheMapCopy;
+    // published leaderboard used for papi, signs and leaderboard messages
+    private final AtomicReference<LeaderboardSnapshot> leaderboardSnapshot =
+            new AtomicReference<>(LeaderboardSnapshot.EMPTY);
 
-    // cached positions
-    private ConcurrentHashMap<String, Integer> positionCacheMap;
-    private ArrayList<EntityCache> entityCacheList;
+    // entities ordered by total wealth, only used for live leaderboard updates
+    private final ConcurrentSkipListSet<LiveRankKey> liveRanking = new ConcurrentSkipListSet<>();
+    private final ConcurrentHashMap<String, LiveRankKey> liveRankKeys = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, EntityCache> liveEntityCaches =
+            new ConcurrentHashMap<>();
+    private volatile boolean liveRankingChanged;
 
     public CacheManager(Main main) {
         this.main = main;
@@ -38,9 +42,11 @@ public class CacheManager {
     public void initializeValues() {
         statsCacheMap = new ConcurrentHashMap<>();
         leaderboardCacheMap = new ConcurrentHashMap<>();
-        positionCacheMap = new ConcurrentHashMap<>();
-        entityCacheMapCopy = new ConcurrentHashMap<>();
-        entityCacheList = new ArrayList<>();
+        leaderboardSnapshot.set(LeaderboardSnapshot.EMPTY);
+        liveRanking.clear();
+        liveRankKeys.clear();
+        liveEntityCaches.clear();
+        liveRankingChanged = false;
     }
 
     public void saveToStatsCache(String name, EntityCache eCache) {
@@ -52,62 +58,168 @@ public class CacheManager {
     }
 
     public EntityCache getCacheAtPosition(int position) {
-        return entityCacheList.get(position);
+        return leaderboardSnapshot.get().getEntityAt(position);
     }
 
-    public void processLeaderboardCache() {
-        setUpEntityCache();
-        entityCacheMapCopy = leaderboardCacheMap;
-        main.getStorageManager().saveToStorage(entityCacheList);
+    /**
+     * Gets the last published leaderboard.
+     *
+     * @return leaderboard snapshot
+     */
+    public LeaderboardSnapshot getLeaderboardSnapshot() {
+        return leaderboardSnapshot.get();
     }
-    
-    public ArrayList<EntityCache> getEntityCacheList() {
-        return entityCacheList;
+
+    /**
+     * Starts live ranking for a leaderboard update, beginning from the results of previous
+     * updates so positions are not emptied while entities are calculated again. Entities of a
+     * leaderboard loaded from storage are included so they remain ranked until recalculated.
+     */
+    public void startLiveRanking() {
+        liveRanking.clear();
+        liveRankKeys.clear();
+        liveEntityCaches.clear();
+        liveEntityCaches.putAll(leaderboardSnapshot.get().getEntityCaches());
+        liveEntityCaches.putAll(leaderboardCacheMap);
+        for (Map.Entry<String, EntityCache> entry : liveEntityCaches.entrySet()) {
+            LiveRankKey key = new LiveRankKey(entry.getKey(), entry.getValue());
+            liveRanking.add(key);
+            liveRankKeys.put(entry.getKey(), key);
+        }
+        liveRankingChanged = false;
+    }
+
+    /**
+     * Re-ranks an entity that has just been calculated during a live leaderboard update. The
+     * shown positions are only marked as changed if the entity enters, leaves or moves within
+     * the total leaderboard positions, since positions outside of it are looked up from the
+     * ranking. Changes are published by {@link #publishLiveRanking()}.
+     *
+     * @param name name of entity
+     * @param eCache entity cache of entity
+     *
+     * @return true if shown positions have changed since they were last published
+     */
+    public boolean updateLiveRanking(String name, EntityCache eCache) {
+        LiveRankKey key = new LiveRankKey(name, eCache);
+        LiveRankKey oldKey = liveRankKeys.put(name, key);
+        if (oldKey != null) {
+            liveRanking.remove(oldKey);
+        }
+        liveRanking.add(key);
+        liveEntityCaches.put(name, eCache);
+
+        // published snapshot is stale once changed, so only check while it is up to date
+        if (liveRankingChanged) {
+            return true;
+        }
+        int limit = main.getOptions().getTotalLeaderboardPositions();
+        LeaderboardSnapshot current = leaderboardSnapshot.get();
+        int size = current.size();
+        boolean wasShown = current.isShown(name);
+        boolean isShown = limit < 0 || size < limit
+                || (size > 0 && key.wealth > current.getEntityAt(size - 1).getTotalWealth());
+        liveRankingChanged = wasShown || isShown;
+        return liveRankingChanged;
     }
 
     /**
-     * Sorts entities by total wealth and filters for total leaderboard position limit shown
-     * if applicable.
+     * Publishes positions from the live ranking if they have changed since last published.
+     * Readers keep using the previous snapshot until the new one is swapped in. Positions of
+     * entities outside the shown positions are looked up from a ranking built from the same
+     * live ranking, so they agree with the published wealth. This walks every ranked entity
+     * and copies the entity caches, so callers should throttle how often it is called.
      *
-     * @return sorted total wealth hashmap
+     * @return true if new positions were published, false otherwise
      */
-    private HashMap<String, EntityCache> getSortedCache() {
-        List<Map.Entry<String, EntityCache> > list =
-            new LinkedList<>(leaderboardCacheMap.entrySet());
-
-        list.sort((o1, o2) -> (o2.getValue().getTotalWealth())
-            .compareTo(o1.getValue().getTotalWealth()));
-
-        HashMap<String, EntityCache> temp = new LinkedHashMap<>();
-        int totalLeaderboardPositions = main.getOptions().getTotalLeaderboardPositions();
-        if (totalLeaderboardPositions >= 0) {
-            for (Map.Entry<String, EntityCache> aa : list) {
-                if (totalLeaderboardPositions == 0) {
-                    break;
-                }
-                temp.put(aa.getKey(), aa.getValue());
-                totalLeaderboardPositions--;
+    public boolean publishLiveRanking() {
+        if (!liveRankingChanged) {
+            return false;
+        }
+        liveRankingChanged = false;
+        int limit = main.getOptions().getTotalLeaderboardPositions();
+        HashMap<String, Integer> positions = new HashMap<>();
+        ArrayList<String> names = new ArrayList<>();
+        ArrayList<EntityCache> entities = new ArrayList<>();
+
+        // live ranking is in descending order, so wealth is filled from the end
+        double[] wealth = new double[liveRankKeys.size()];
+        int count = 0;
+        for (LiveRankKey key : liveRanking) {
+            if (count == wealth.length) {
+                wealth = Arrays.copyOf(wealth, wealth.length * 2 + 1);
             }
-        } else {
-            for (Map.Entry<String, EntityCache> aa : list) {
-                temp.put(aa.getKey(), aa.getValue());
+            wealth[count++] = key.wealth;
+            if (limit < 0 || entities.size() < limit) {
+                positions.put(key.name, entities.size());
+                names.add(key.name);
+                entities.add(key.eCache);
             }
         }
-        return temp;
+        double[] sortedWealth = new double[count];
+        for (int i = 0; i < count; i++) {
+            sortedWealth[i] = wealth[count - 1 - i];
+        }
+        EntityCache[] topEntities = entities.toArray(new EntityCache[0]);
+        LeaderboardRanking ranking = LeaderboardRanking.ofOrdered(names.toArray(new String[0]),
+                topEntities, sortedWealth);
+        leaderboardSnapshot.set(new LeaderboardSnapshot(topEntities, positions,
+                new HashMap<>(liveEntityCaches), ranking));
+        return true;
+    }
+
+    /**
+     * Publishes a leaderboard loaded from storage so that positions are available before the
+     * first update completes. Loaded entities are only used for positions and placeholders,
+     * and are not added to the leaderboard cache since they lack the item counts needed for
+     * stats. Nothing is published if a leaderboard has already been published.
+     *
+     * @param entityCacheList entities loaded from storage
+     *
+     * @return true if the loaded leaderboard was published, false otherwise
+     */
+    public boolean loadLeaderboard(ArrayList<EntityCache> entityCacheList) {
+        HashMap<String, EntityCache> loadedCacheMap = new HashMap<>();
+        for (EntityCache eCache : entityCacheList) {
+            loadedCacheMap.put(eCache.getName().toUpperCase(), eCache);
+        }
+        LeaderboardRanking ranking = LeaderboardRanking.rank(loadedCacheMap,
+                main.getOptions().getTotalLeaderboardPositions());
+        String[] topNames = ranking.getTopNames();
+        HashMap<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < topNames.length; i++) {
+            positions.put(topNames[i], i);
+        }
+        return leaderboardSnapshot.compareAndSet(LeaderboardSnapshot.EMPTY,
+                new LeaderboardSnapshot(ranking.getTopEntities(), positions, loadedCacheMap,
+                ranking));
+    }
+
+    public void processLeaderboardCache() {
+        setUpEntityCache();
+        main.getStorageManager().saveToStorage(getEntityCacheList());
+        main.getHistoryManager().recordRun(new ArrayList<>(leaderboardCacheMap.values()));
+    }
+
+    public ArrayList<EntityCache> getEntityCacheList() {
+        return leaderboardSnapshot.get().toList();
     }
 
     /**
-     * Sets entity position and entity cache list for easy papi access.
+     * Sets entity position and entity cache list for easy papi access. Only the entities within
+     * the total leaderboard position limit are ordered, while positions of the rest are looked
+     * up from the ranking when needed.
      */
     private void setUpEntityCache() {
-        HashMap<String, EntityCache> tempSortedCache = getSortedCache();
-        this.positionCacheMap = new ConcurrentHashMap<>();
-        int i = 0;
-        for (String nameKey : tempSortedCache.keySet()) {
-            this.positionCacheMap.put(nameKey, i);
-            i++;
+        LeaderboardRanking ranking = LeaderboardRanking.rank(leaderboardCacheMap,
+                main.getOptions().getTotalLeaderboardPositions());
+        String[] topNames = ranking.getTopNames();
+        HashMap<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < topNames.length; i++) {
+            positions.put(topNames[i], i);
         }
-        this.entityCacheList = new ArrayList<>(tempSortedCache.values());
+        leaderboardSnapshot.set(new LeaderboardSnapshot(ranking.getTopEntities(), positions,
+                new HashMap<>(leaderboardCacheMap), ranking));
     }
 
     /**
@@ -159,6 +271,27 @@ public class CacheManager {
         return eCache.getGui(main);
     }
 
+    /**
+     * Key for ordering entities in the live ranking by total wealth, with ties broken by name.
+     */
+    private static class LiveRankKey implements Comparable<LiveRankKey> {
+        private final String name;
+        private final EntityCache eCache;
+        private final double wealth;
+
+        private LiveRankKey(String name, EntityCache eCache) {
+            this.name = name;
+            this.eCache = eCache;
+            this.wealth = eCache.getTotalWealth();
+        }
+
+        @Override
+        public int compareTo(LiveRankKey other) {
+            int result = Double.compare(other.wealth, wealth);
+            return result != 0 ? result : name.compareTo(other.name);
+        }
+    }
+
     // functions below are called by the papi manager to retrieve leaderboard values
 
     /**
@@ -169,7 +302,7 @@ public class CacheManager {
      * @return name of entity at specified position
      */
     public String getEntityNameAtPosition(int index) {
-        EntityCache eCache = this.entityCacheList.get(index);
+        EntityCache eCache = leaderboardSnapshot.get().getEntityAt(index);
         String name = eCache.getName();
 
         if (name == null) {
@@ -187,14 +320,7 @@ public class CacheManager {
      * @return wealth of entity at specified position
      */
     public String getEntityWealthAtPosition(int index) {
-        EntityCache eCache = this.entityCacheList.get(index);
-        Double value = eCache.getTotalWealth();
-
-        if (value != null) {
-            return String.format("%.02f", value);
-        } else {
-            return "None";
-        }
+        return leaderboardSnapshot.get().getWealthAt(index);
     }
 
     /**
@@ -205,13 +331,8 @@ public class CacheManager {
      * @return position of given entity
      */
     public String getPositionOfEntity(String name) {
-        Integer position = this.positionCacheMap.get(name);
-        if (position != null) {
-            position = position + 1; // index 0
-            return String.format("%d", position);
-        } else {
-            return "None";
-        }
+        String position = leaderboardSnapshot.get().getFormattedPosition(name);
+        return position != null ? position : "None";
     }
 
     /**
@@ -222,8 +343,7 @@ public class CacheManager {
      * @return balance wealth of given entity
      */
     public String getEntityBalWealth(String name) {
-        EntityCache eCache = entityCacheMapCopy.get(name);
-        return String.format("%.02f", eCache.getBalWealth());
+        return getEntityWealth(name, WealthType.BALANCE);
     }
 
     /**
@@ -234,8 +354,7 @@ public class CacheManager {
      * @return land wealth of given entity
      */
     public String getEntityLandWealth(String name) {
-        EntityCache eCache = entityCacheMapCopy.get(name);
-        return String.format("%.02f", eCache.getLandWealth());
+        return getEntityWealth(name, WealthType.LAND);
     }
 
     /**
@@ -246,8 +365,7 @@ public class CacheManager {
      * @return block wealth of given entity
      */
     public String getEntityBlockWealth(String name) {
-        EntityCache eCache = entityCacheMapCopy.get(name);
-        return String.format("%.02f", eCache.getBlockWealth());
+        return getEntityWealth(name, WealthType.BLOCK);
     }
 
     /**
@@ -258,8 +376,7 @@ public class CacheManager {
      * @return spawner wealth of given entity
      */
     public String getEntitySpawnerWealth(String name) {
-        EntityCache eCache = entityCacheMapCopy.get(name);
-        return String.format("%.02f", eCache.getSpawnerWealth());
+        return getEntityWealth(name, WealthType.SPAWNER);
     }
 
     /**
@@ -270,8 +387,7 @@ public class CacheManager {
      * @return container wealth of given entity
      */
     public String getEntityContainerWealth(String name) {
-        EntityCache eCache = entityCacheMapCopy.get(name);
-        return String.format("%.02f", eCache.getContainerWealth());
+        return getEntityWealth(name, WealthType.CONTAINER);
     }
 
     /**
@@ -282,8 +398,7 @@ public class CacheManager {
      * @return inventory wealth of given entity
      */
     public String getEntityInvWealth(String name) {
-        EntityCache eCache = entityCacheMapCopy.get(name);
-        return String.format("%.02f", eCache.getInventoryWealth());
+        return getEntityWealth(name, WealthType.INVENTORY);
     }
 
     /**
@@ -294,7 +409,19 @@ public class CacheManager {
      * @return total wealth of given entity
      */
     public String getEntityTotalWealth(String name) {
-        EntityCache eCache = entityCacheMapCopy.get(name);
-        return String.format("%.02f", eCache.getTotalWealth());
+        return getEntityWealth(name, WealthType.TOTAL);
+    }
+
+    /**
+     * Gets a type of wealth of an entity with given name.
+     *
+     * @param name name of entity
+     * @param type type of wealth to get
+     *
+     * @return formatted wealth of given entity
+     */
+    public String getEntityWealth(String name, WealthType type) {
+        EntityCache eCache = leaderboardSnapshot.get().getEntityCache(name);
+        return eCache.getFormattedWealth(type);
     }
 }
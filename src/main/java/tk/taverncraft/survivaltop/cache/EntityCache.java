@@ -23,6 +23,9 @@ public class EntityCache {
     private String[] placeholders;
     private String[] values;
 
+    // used for papi, formatted on first use and indexed by wealth type
+    private volatile String[] formattedWealth;
+
     // used to track expiry time
     private final long cacheTime;
 
@@ -208,6 +211,39 @@ public class EntityCache {
         return wealthBreakdown.get("total-wealth");
     }
 
+    /**
+     * Gets a type of wealth of the entity.
+     *
+     * @param type type of wealth to get
+     *
+     * @return wealth of the entity
+     */
+    public double getWealth(WealthType type) {
+        return wealthBreakdown.get(type.getKey());
+    }
+
+    /**
+     * Gets a wealth value of the entity formatted to 2 decimal places. All values are formatted
+     * together on first use so that frequent placeholder requests do not format them again.
+     *
+     * @param type type of wealth to get
+     *
+     * @return formatted wealth of the entity
+     */
+    public String getFormattedWealth(WealthType type) {
+        String[] formatted = formattedWealth;
+        if (formatted == null) {
+            WealthType[] types = WealthType.values();
+            formatted = new String[types.length];
+            for (WealthType wealthType : types) {
+                formatted[wealthType.ordinal()] = String.format("%.02f",
+                        wealthBreakdown.get(wealthType.getKey()));
+            }
+            formattedWealth = formatted;
+        }
+        return formatted[type.ordinal()];
+    }
+
     /**
      * Gets the time since epoch when the cache was created.
      *
@@ -0,0 +1,199 @@
+package tk.taverncraft.survivaltop.cache;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Ranks leaderboard entities by total wealth. Only the top positions shown on the leaderboard
+ * are fully ordered, using a bounded min-heap over primitive wealth values, while the wealth of
+ * every entity is kept in a sorted primitive array so the exact position of entities outside
+ * the top positions can still be looked up.
+ */
+public class LeaderboardRanking {
+    private final String[] topNames;
+    private final EntityCache[] topEntities;
+
+    // total wealth of every ranked entity in ascending order
+    private final double[] sortedWealth;
+
+    /**
+     * Constructor for LeaderboardRanking.
+     *
+     * @param topNames names of top entities ordered by position
+     * @param topEntities caches of top entities ordered by position
+     * @param sortedWealth total wealth of every entity in ascending order
+     */
+    private LeaderboardRanking(String[] topNames, EntityCache[] topEntities,
+            double[] sortedWealth) {
+        this.topNames = topNames;
+        this.topEntities = topEntities;
+        this.sortedWealth = sortedWealth;
+    }
+
+    /**
+     * Ranks the given entities by total wealth.
+     *
+     * @param entries entity caches mapped to entity name
+     * @param limit number of top positions to order, or negative for every entity
+     *
+     * @return ranking of entities
+     */
+    public static LeaderboardRanking rank(Map<String, EntityCache> entries, int limit) {
+        int capacity = entries.size();
+        if (limit >= 0 && limit < capacity) {
+            capacity = limit;
+        }
+        double[] heapWealth = new double[capacity];
+        String[] heapNames = new String[capacity];
+        EntityCache[] heapEntities = new EntityCache[capacity];
+        double[] allWealth = new double[entries.size()];
+        int heapSize = 0;
+        int count = 0;
+
+        for (Map.Entry<String, EntityCache> entry : entries.entrySet()) {
+            if (count == allWealth.length) {
+                // entries may be added while ranking since the map is concurrent
+                break;
+            }
+            double wealth = entry.getValue().getTotalWealth();
+            allWealth[count++] = wealth;
+            if (heapSize < capacity) {
+                heapWealth[heapSize] = wealth;
+                heapNames[heapSize] = entry.getKey();
+                heapEntities[heapSize] = entry.getValue();
+                siftUp(heapWealth, heapNames, heapEntities, heapSize);
+                heapSize++;
+            } else if (capacity > 0 && wealth > heapWealth[0]) {
+                heapWealth[0] = wealth;
+                heapNames[0] = entry.getKey();
+                heapEntities[0] = entry.getValue();
+                siftDown(heapWealth, heapNames, heapEntities, heapSize);
+            }
+        }
+
+        // removing the smallest entry each time fills positions from the bottom up
+        String[] topNames = new String[heapSize];
+        EntityCache[] topEntities = new EntityCache[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            topNames[i] = heapNames[0];
+            topEntities[i] = heapEntities[0];
+            int last = i;
+            swap(heapWealth, heapNames, heapEntities, 0, last);
+            siftDown(heapWealth, heapNames, heapEntities, last);
+        }
+
+        double[] sortedWealth = Arrays.copyOf(allWealth, count);
+        Arrays.sort(sortedWealth);
+        return new LeaderboardRanking(topNames, topEntities, sortedWealth);
+    }
+
+    /**
+     * Creates a ranking from entities that are already ordered, such as during a live
+     * leaderboard update.
+     *
+     * @param topNames names of top entities ordered by position
+     * @param topEntities caches of top entities ordered by position
+     * @param sortedWealth total wealth of every ranked entity in ascending order
+     *
+     * @return ranking of entities
+     */
+    public static LeaderboardRanking ofOrdered(String[] topNames, EntityCache[] topEntities,
+            double[] sortedWealth) {
+        return new LeaderboardRanking(topNames, topEntities, sortedWealth);
+    }
+
+    /**
+     * Gets the names of top entities ordered by position.
+     *
+     * @return names of top entities
+     */
+    public String[] getTopNames() {
+        return topNames;
+    }
+
+    /**
+     * Gets the caches of top entities ordered by position.
+     *
+     * @return caches of top entities
+     */
+    public EntityCache[] getTopEntities() {
+        return topEntities;
+    }
+
+    /**
+     * Gets the position that an entity with the given total wealth is ranked at, which is the
+     * number of ranked entities with more wealth.
+     *
+     * @param wealth total wealth of entity
+     *
+     * @return position starting from 0
+     */
+    public int getPosition(double wealth) {
+        int low = 0;
+        int high = sortedWealth.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedWealth[middle] <= wealth) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return sortedWealth.length - low;
+    }
+
+    /**
+     * Moves an entry up the min-heap until its parent is not larger.
+     */
+    private static void siftUp(double[] wealth, String[] names, EntityCache[] entities,
+            int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (wealth[parent] <= wealth[index]) {
+                return;
+            }
+            swap(wealth, names, entities, parent, index);
+            index = parent;
+        }
+    }
+
+    /**
+     * Moves the root entry down the min-heap until no child is smaller.
+     */
+    private static void siftDown(double[] wealth, String[] names, EntityCache[] entities,
+            int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && wealth[left] < wealth[smallest]) {
+                smallest = left;
+            }
+            if (right < size && wealth[right] < wealth[smallest]) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(wealth, names, entities, smallest, index);
+            index = smallest;
+        }
+    }
+
+    /**
+     * Swaps two entries of the heap.
+     */
+    private static void swap(double[] wealth, String[] names, EntityCache[] entities, int i,
+            int j) {
+        double tempWealth = wealth[i];
+        wealth[i] = wealth[j];
+        wealth[j] = tempWealth;
+        String tempName = names[i];
+        names[i] = names[j];
+        names[j] = tempName;
+        EntityCache tempEntity = entities[i];
+        entities[i] = entities[j];
+        entities[j] = tempEntity;
+    }
+}
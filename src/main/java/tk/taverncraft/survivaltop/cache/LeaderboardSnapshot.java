@@ -0,0 +1,162 @@
+package tk.taverncraft.survivaltop.cache;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of the leaderboard as last published. Ranked entities, their positions and the
+ * caches used for placeholders are replaced together as a single object, so readers on other
+ * threads never see a mix of old and new values. Strings shown for ranked entities are
+ * formatted once when the snapshot is created.
+ */
+public class LeaderboardSnapshot {
+    public static final LeaderboardSnapshot EMPTY = new LeaderboardSnapshot(new EntityCache[0],
+            new HashMap<>(), new HashMap<>(), null);
+
+    private final EntityCache[] rankedEntities;
+    private final String[] rankedWealth;
+    private final String[] positionStrings;
+    private final Map<String, Integer> positions;
+    private final Map<String, EntityCache> entityCaches;
+    private final LeaderboardRanking ranking;
+
+    /**
+     * Constructor for LeaderboardSnapshot. Maps passed in must not be modified afterwards.
+     *
+     * @param rankedEntities caches of shown entities ordered by position
+     * @param positions positions of shown entities mapped to entity name
+     * @param entityCaches caches of all entities mapped to entity name
+     * @param ranking ranking for looking up positions of entities not shown, may be null
+     */
+    public LeaderboardSnapshot(EntityCache[] rankedEntities, HashMap<String, Integer> positions,
+            HashMap<String, EntityCache> entityCaches, LeaderboardRanking ranking) {
+        this.rankedEntities = rankedEntities;
+        this.rankedWealth = new String[rankedEntities.length];
+        this.positionStrings = new String[rankedEntities.length];
+        for (int i = 0; i < rankedEntities.length; i++) {
+            rankedWealth[i] = rankedEntities[i].getFormattedWealth(WealthType.TOTAL);
+            positionStrings[i] = String.valueOf(i + 1);
+        }
+        this.positions = Collections.unmodifiableMap(positions);
+        this.entityCaches = Collections.unmodifiableMap(entityCaches);
+        this.ranking = ranking;
+    }
+
+    /**
+     * Gets the cache of the entity at a position.
+     *
+     * @param index position starting from 0
+     *
+     * @return cache of entity at position
+     *
+     * @throws IndexOutOfBoundsException if no entity is at the position
+     */
+    public EntityCache getEntityAt(int index) {
+        return rankedEntities[index];
+    }
+
+    /**
+     * Gets the formatted total wealth of the entity at a position.
+     *
+     * @param index position starting from 0
+     *
+     * @return formatted total wealth of entity at position
+     *
+     * @throws IndexOutOfBoundsException if no entity is at the position
+     */
+    public String getWealthAt(int index) {
+        return rankedWealth[index];
+    }
+
+    /**
+     * Gets the number of shown entities.
+     *
+     * @return number of shown entities
+     */
+    public int size() {
+        return rankedEntities.length;
+    }
+
+    /**
+     * Gets a copy of the shown entities ordered by position.
+     *
+     * @return list of entity caches
+     */
+    public ArrayList<EntityCache> toList() {
+        return new ArrayList<>(Arrays.asList(rankedEntities));
+    }
+
+    /**
+     * Gets the position of an entity, looking up entities outside the shown positions from the
+     * ranking.
+     *
+     * @param name name of entity
+     *
+     * @return position starting from 0, or null if entity is not ranked
+     */
+    public Integer getPosition(String name) {
+        Integer position = positions.get(name);
+        if (position != null) {
+            return position;
+        }
+        EntityCache eCache = entityCaches.get(name);
+        if (ranking == null || eCache == null) {
+            return null;
+        }
+        return ranking.getPosition(eCache.getTotalWealth());
+    }
+
+    /**
+     * Gets the position of an entity as shown to players, counting from 1.
+     *
+     * @param name name of entity
+     *
+     * @return formatted position, or null if entity is not ranked
+     */
+    public String getFormattedPosition(String name) {
+        Integer position = positions.get(name);
+        if (position != null) {
+            return positionStrings[position];
+        }
+        position = getPosition(name);
+        return position == null ? null : String.valueOf(position + 1);
+    }
+
+    /**
+     * Checks if an entity is within the shown positions.
+     *
+     * @param name name of entity
+     *
+     * @return true if entity is shown, false otherwise
+     */
+    public boolean isShown(String name) {
+        return positions.containsKey(name);
+    }
+
+    /**
+     * Gets the cache of an entity.
+     *
+     * @param name name of entity
+     *
+     * @return cache of entity, or null if entity is not on the leaderboard
+     */
+    public EntityCache getEntityCache(String name) {
+        return entityCaches.get(name);
+    }
+
+    /**
+     * Gets the caches of all entities.
+     *
+     * @return unmodifiable map of entity caches mapped to entity name
+     */
+    public Map<String, EntityCache> getEntityCaches() {
+        return entityCaches;
+    }
+
+    public LeaderboardRanking getRanking() {
+        return ranking;
+    }
+}
@@ -0,0 +1,30 @@
+package tk.taverncraft.survivaltop.cache;
+
+/**
+ * Types of wealth provided as placeholders, mapped to their keys in the wealth breakdown of
+ * an entity.
+ */
+public enum WealthType {
+    BALANCE("balance-wealth"),
+    LAND("land-wealth"),
+    BLOCK("block-wealth"),
+    SPAWNER("spawner-wealth"),
+    CONTAINER("container-wealth"),
+    INVENTORY("inventory-wealth"),
+    TOTAL("total-wealth");
+
+    private final String key;
+
+    WealthType(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Gets the key of this wealth type in the wealth breakdown of an entity.
+     *
+     * @return wealth breakdown key
+     */
+    public String getKey() {
+        return key;
+    }
+}
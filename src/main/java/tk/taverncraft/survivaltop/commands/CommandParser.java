@@ -55,6 +55,10 @@ public class CommandParser implements CommandExecutor {
         case "TOP":
             return new TopCommand(main).execute(sender, args);
 
+        // command to view changes in own or others' wealth
+        case "HISTORY":
+            return new HistoryCommand(main).execute(sender, args);
+
         // command to view item info
         case "ITEMINFO":
             return new ItemInfoCommand(main).execute(sender);
@@ -18,6 +18,7 @@ public class CommandTabCompleter implements TabCompleter {
     private static final String[] COMMANDS = {
         "top",
         "stats",
+        "history",
         "iteminfo",
         "update",
         "help",
@@ -0,0 +1,148 @@
+package tk.taverncraft.survivaltop.commands;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.cache.WealthType;
+import tk.taverncraft.survivaltop.history.HistoryManager;
+import tk.taverncraft.survivaltop.messages.MessageManager;
+import tk.taverncraft.survivaltop.permissions.PermissionsManager;
+
+/**
+ * HistoryCommand contains the execute method for when a user views changes in wealth of self
+ * or others.
+ */
+public class HistoryCommand {
+    private final Main main;
+    private final PermissionsManager permissionsManager;
+
+    /**
+     * Constructor for HistoryCommand.
+     *
+     * @param main plugin class
+     */
+    public HistoryCommand(Main main) {
+        this.main = main;
+        this.permissionsManager = new PermissionsManager(main);
+    }
+
+    /**
+     * Checks if user is requesting history for self or others and handles request accordingly.
+     *
+     * @param sender user who sent the command
+     * @param args command args possibly containing entity name
+     *
+     * @return true at end of execution
+     */
+    public boolean execute(CommandSender sender, String[] args) {
+        if (args.length >= 2) {
+            getHistoryForOthers(sender, args[1]);
+        } else {
+            getHistoryForSelf(sender);
+        }
+        return true;
+    }
+
+    /**
+     * Shows user history for self.
+     *
+     * @param sender user who sent the command
+     */
+    private void getHistoryForSelf(CommandSender sender) {
+        if (!(sender instanceof Player)) {
+            MessageManager.sendMessage(sender, "player-only-command");
+            return;
+        }
+
+        if (!permissionsManager.hasHistoryCmdPerm(sender)) {
+            return;
+        }
+
+        String name = sender.getName();
+        if (main.getOptions().groupIsEnabled()) {
+            name = main.getGroupManager().getGroupOfPlayer(name);
+            if (!permissionsManager.groupExist(name, sender)) {
+                return;
+            }
+        }
+        getHistory(sender, name);
+    }
+
+    /**
+     * Shows user history for others.
+     *
+     * @param sender user who sent the command
+     * @param name name of entity
+     */
+    private void getHistoryForOthers(CommandSender sender, String name) {
+        if (!permissionsManager.hasHistoryOthersCmdPerm(sender)) {
+            return;
+        }
+
+        // check if group/player provided exist
+        if (main.getOptions().groupIsEnabled()) {
+            if (!permissionsManager.groupExist(name, sender)) {
+                return;
+            }
+        } else {
+            if (!permissionsManager.playerExist(name, sender)) {
+                return;
+            }
+        }
+        getHistory(sender, name);
+    }
+
+    /**
+     * Looks up changes in total wealth of an entity over the configured periods.
+     *
+     * @param sender user who sent the command
+     * @param name name of entity
+     */
+    private void getHistory(CommandSender sender, String name) {
+        if (!main.getOptions().isWealthHistoryEnabled()) {
+            MessageManager.sendMessage(sender, "history-disabled");
+            return;
+        }
+
+        // history may have to be read from file, so look up changes off the main thread
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                showHistory(sender, name);
+            }
+        }.runTaskAsynchronously(main);
+    }
+
+    /**
+     * Sends the changes in total wealth of an entity to the user.
+     *
+     * @param sender user who sent the command
+     * @param name name of entity
+     */
+    private void showHistory(CommandSender sender, String name) {
+        HistoryManager historyManager = main.getHistoryManager();
+        List<String> days = new ArrayList<>();
+        List<String> changes = new ArrayList<>();
+        for (int period : main.getOptions().getHistoryCommandPeriods()) {
+            Double change = historyManager.loadWealthChange(name.toUpperCase(),
+                    WealthType.TOTAL, period);
+            if (change != null) {
+                days.add(String.valueOf(period));
+                changes.add(String.format("%.02f", change));
+            }
+        }
+
+        if (days.isEmpty()) {
+            MessageManager.sendMessage(sender, "no-history",
+                    new String[]{"%entity%"},
+                    new String[]{name});
+            return;
+        }
+        MessageManager.sendHistoryMessage(sender, name, days, changes);
+    }
+}
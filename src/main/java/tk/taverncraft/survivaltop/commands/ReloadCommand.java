@@ -51,6 +51,7 @@ public class ReloadCommand {
 
             // reinitialize manager values
             main.getStorageManager().initializeValues();
+            main.getHistoryManager().initializeValues();
             main.getLandManager().setStopOperations(true);
             main.getLandManager().initializeLandOperations();
             main.getLandManager().initializeLandType();
@@ -61,6 +62,9 @@ public class ReloadCommand {
             main.getGroupManager().initializeLandType();
             main.getLogManager().stopExistingTasks();
             main.getCacheManager().initializeValues();
+            if (main.getOptions().isLoadLeaderboardOnStart()) {
+                main.getLeaderboardManager().loadLeaderboardFromStorage();
+            }
             main.getLeaderboardManager().stopExistingScheduleTasks();
             main.getLeaderboardManager().scheduleLeaderboardUpdate(
                     main.getOptions().getUpdateInterval(),
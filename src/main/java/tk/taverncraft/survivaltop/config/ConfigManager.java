@@ -2,6 +2,9 @@ package tk.taverncraft.survivaltop.config;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 
 import org.bukkit.configuration.InvalidConfigurationException;
 import org.bukkit.configuration.file.FileConfiguration;
@@ -65,6 +68,14 @@ public class ConfigManager {
     public void createMessageFile() {
         String langFileName = main.getConfig().getString("lang-file", "en.yml");
         FileConfiguration langConfig = getConfig("lang/" + langFileName);
+
+        // fall back to bundled messages for keys missing from lang files of older versions
+        InputStream defaultLang = main.getResource("lang/en.yml");
+        if (defaultLang != null) {
+            langConfig.setDefaults(YamlConfiguration.loadConfiguration(
+                    new InputStreamReader(defaultLang, StandardCharsets.UTF_8)));
+            langConfig.options().copyDefaults(true);
+        }
         MessageManager.setMessages(langConfig);
     }
 
@@ -1,12 +1,17 @@
 package tk.taverncraft.survivaltop.config;
 
 import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 
 import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 
 import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.utils.WorldUtils;
 
 /**
  * Handles and stores all options loaded from configuration files. Explanations for each field
@@ -36,9 +41,21 @@ public class Options {
     private String landType;
     private int maxLandHeight;
     private int minLandHeight;
+    private HashMap<String, Integer> worldMaxLandHeights;
+    private HashMap<String, Integer> worldMinLandHeights;
+    private boolean useHeightmap;
     private boolean includeSpawners;
     private boolean includeContainers;
     private List<String> containerTypes;
+    private boolean includeNestedItems;
+    private boolean useChunkSnapshots;
+    private int chunkSnapshotBatchSize;
+    private boolean parallelClaimScanning;
+    private int claimSplitSize;
+    private boolean incrementalLandTracking;
+    private long incrementalReconcileInterval;
+    private long chunkCacheDuration;
+    private boolean persistLandIndex;
 
     // inventory configurations
     private boolean includeInventory;
@@ -49,6 +66,10 @@ public class Options {
     // leaderboard configurations
     private int updateInterval;
     private boolean updateOnStart;
+    private int leaderboardConcurrency;
+    private boolean liveLeaderboard;
+    private int liveLeaderboardRefreshInterval;
+    private int mainThreadBudget;
     private double minimumWealth;
     private int totalLeaderboardPositions;
     private int leaderboardPositionsPerPage;
@@ -65,6 +86,14 @@ public class Options {
     private String password;
     private String databaseName;
     private String tableName;
+    private int connectionPoolSize;
+    private int storageBatchSize;
+    private int historyRetentionDays;
+    private boolean loadLeaderboardOnStart;
+    private boolean wealthHistoryEnabled;
+    private int historyFullResolutionDays;
+    private double historySpikeWarningPercent;
+    private List<Integer> historyCommandPeriods;
 
     // miscellaneous options
     private int townBlockSize;
@@ -99,13 +128,32 @@ public class Options {
         this.landType = config.getString("land-type", "GriefPrevention");
         setMaxLandHeight();
         setMinLandHeight();
+        setWorldLandHeights();
+        this.useHeightmap = config.getBoolean("use-heightmap", false);
         this.includeSpawners = config.getBoolean("include-spawners", false);
         this.includeContainers = config.getBoolean("include-containers", false);
         this.containerTypes = config.getStringList("container-type");
+        this.includeNestedItems = config.getBoolean("include-nested-items", false);
+        this.parallelClaimScanning = config.getBoolean("parallel-claim-scanning", false);
+        // workers must not read the live world, so parallel scans always use snapshots
+        this.useChunkSnapshots = config.getBoolean("use-chunk-snapshots", false)
+                || parallelClaimScanning;
+        this.chunkSnapshotBatchSize = Math.max(1, config.getInt("chunk-snapshot-batch-size", 16));
+        this.claimSplitSize = Math.max(1, config.getInt("claim-split-size", 16));
+        this.incrementalLandTracking = config.getBoolean("incremental-land-tracking", false);
+        this.incrementalReconcileInterval = config.getLong("incremental-reconcile-interval",
+                86400);
+        this.chunkCacheDuration = config.getLong("chunk-cache-duration", 0);
+        this.persistLandIndex = config.getBoolean("persist-land-index", false);
         this.includeInventory = config.getBoolean("include-inventory", false);
         this.includePapi = config.getBoolean("include-papi", false);
         this.updateInterval = config.getInt("update-interval", 3600);
         this.updateOnStart = config.getBoolean("update-on-start", false);
+        this.leaderboardConcurrency = Math.max(1, config.getInt("leaderboard-concurrency", 1));
+        this.liveLeaderboard = config.getBoolean("live-leaderboard", false);
+        this.liveLeaderboardRefreshInterval = config.getInt("live-leaderboard-refresh-interval",
+                30);
+        this.mainThreadBudget = config.getInt("main-thread-budget", 10);
         this.minimumWealth = config.getInt("minimum-wealth", 0);
         this.totalLeaderboardPositions = config.getInt("total-leaderboard-positions", -1);
         this.leaderboardPositionsPerPage = config.getInt("leaderboard-positions-per-page", 10);
@@ -120,6 +168,18 @@ public class Options {
         this.password = config.getString("password", "password");
         this.databaseName = config.getString("database-name", "survtop");
         this.tableName = config.getString("table-name", "survtop");
+        this.connectionPoolSize = Math.max(1, config.getInt("connection-pool-size", 2));
+        this.storageBatchSize = Math.max(1, config.getInt("batch-size", 500));
+        this.historyRetentionDays = config.getInt("history-retention-days", 30);
+        this.loadLeaderboardOnStart = config.getBoolean("load-leaderboard-on-start", true);
+        this.wealthHistoryEnabled = config.getBoolean("wealth-history", false);
+        this.historyFullResolutionDays = Math.max(0, config.getInt(
+                "history-full-resolution-days", 7));
+        this.historySpikeWarningPercent = config.getDouble("history-spike-warning-percent", 0);
+        this.historyCommandPeriods = config.getIntegerList("history-command-periods");
+        if (historyCommandPeriods.isEmpty()) {
+            historyCommandPeriods = Arrays.asList(1, 7, 30);
+        }
         this.townBlockSize = config.getInt("town-block-size", 16);
         this.lastLoadTime = Instant.now().getEpochSecond();
     }
@@ -186,6 +246,36 @@ public class Options {
         return minLandHeight;
     }
 
+    /**
+     * Gets the max land height for a world, using the world override if there is one and
+     * limited to the build height of the world.
+     *
+     * @param world world to get max land height for
+     *
+     * @return max land height of world
+     */
+    public double getMaxLandHeight(World world) {
+        int height = worldMaxLandHeights.getOrDefault(world.getName(), maxLandHeight);
+        return Math.min(height, world.getMaxHeight());
+    }
+
+    /**
+     * Gets the min land height for a world, using the world override if there is one and
+     * limited to the lowest y coordinate of the world.
+     *
+     * @param world world to get min land height for
+     *
+     * @return min land height of world
+     */
+    public double getMinLandHeight(World world) {
+        int height = worldMinLandHeights.getOrDefault(world.getName(), minLandHeight);
+        return Math.max(height, WorldUtils.getMinHeight(world));
+    }
+
+    public boolean isUseHeightmap() {
+        return useHeightmap;
+    }
+
     public boolean spawnerIsIncluded() {
         return includeLand && includeSpawners;
     }
@@ -198,6 +288,42 @@ public class Options {
         return containerTypes;
     }
 
+    public boolean isIncludeNestedItems() {
+        return includeNestedItems;
+    }
+
+    public boolean isUseChunkSnapshots() {
+        return useChunkSnapshots;
+    }
+
+    public int getChunkSnapshotBatchSize() {
+        return chunkSnapshotBatchSize;
+    }
+
+    public boolean isParallelClaimScanning() {
+        return parallelClaimScanning;
+    }
+
+    public int getClaimSplitSize() {
+        return claimSplitSize;
+    }
+
+    public boolean isIncrementalLandTracking() {
+        return incrementalLandTracking;
+    }
+
+    public long getIncrementalReconcileInterval() {
+        return incrementalReconcileInterval;
+    }
+
+    public long getChunkCacheDuration() {
+        return chunkCacheDuration;
+    }
+
+    public boolean isPersistLandIndex() {
+        return persistLandIndex;
+    }
+
     public boolean inventoryIsIncluded() {
         return includeInventory;
     }
@@ -214,6 +340,22 @@ public class Options {
         return updateOnStart;
     }
 
+    public int getLeaderboardConcurrency() {
+        return leaderboardConcurrency;
+    }
+
+    public boolean isLiveLeaderboard() {
+        return liveLeaderboard;
+    }
+
+    public int getLiveLeaderboardRefreshInterval() {
+        return liveLeaderboardRefreshInterval;
+    }
+
+    public int getMainThreadBudget() {
+        return mainThreadBudget;
+    }
+
     public double getMinimumWealth() {
         return minimumWealth;
     }
@@ -270,6 +412,38 @@ public class Options {
         return tableName;
     }
 
+    public int getConnectionPoolSize() {
+        return connectionPoolSize;
+    }
+
+    public int getStorageBatchSize() {
+        return storageBatchSize;
+    }
+
+    public int getHistoryRetentionDays() {
+        return historyRetentionDays;
+    }
+
+    public boolean isLoadLeaderboardOnStart() {
+        return loadLeaderboardOnStart;
+    }
+
+    public boolean isWealthHistoryEnabled() {
+        return wealthHistoryEnabled;
+    }
+
+    public int getHistoryFullResolutionDays() {
+        return historyFullResolutionDays;
+    }
+
+    public double getHistorySpikeWarningPercent() {
+        return historySpikeWarningPercent;
+    }
+
+    public List<Integer> getHistoryCommandPeriods() {
+        return historyCommandPeriods;
+    }
+
     public int getTownBlockSize() {
         return townBlockSize;
     }
@@ -306,6 +480,26 @@ public class Options {
         }
     }
 
+    private void setWorldLandHeights() {
+        this.worldMaxLandHeights = new HashMap<>();
+        this.worldMinLandHeights = new HashMap<>();
+        ConfigurationSection section = main.getConfig().getConfigurationSection(
+                "world-land-heights");
+        if (section == null) {
+            return;
+        }
+        for (String worldName : section.getKeys(false)) {
+            if (section.isInt(worldName + ".max-land-height")) {
+                worldMaxLandHeights.put(worldName,
+                        section.getInt(worldName + ".max-land-height"));
+            }
+            if (section.isInt(worldName + ".min-land-height")) {
+                worldMinLandHeights.put(worldName,
+                        section.getInt(worldName + ".min-land-height"));
+            }
+        }
+    }
+
     public void disableBal() {
         this.includeBal = false;
     }
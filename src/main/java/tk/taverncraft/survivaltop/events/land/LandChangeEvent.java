@@ -0,0 +1,199 @@
+package tk.taverncraft.survivaltop.events.land;
+
+import java.util.List;
+
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockFadeEvent;
+import org.bukkit.event.block.BlockFormEvent;
+import org.bukkit.event.block.BlockFromToEvent;
+import org.bukkit.event.block.BlockGrowEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.block.BlockSpreadEvent;
+import org.bukkit.event.block.LeavesDecayEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.land.index.LandIndex;
+
+/**
+ * LandChangeEvent keeps the land index up to date as blocks in indexed chunks change.
+ */
+public class LandChangeEvent implements Listener {
+    private final Main main;
+
+    /**
+     * Constructor for LandChangeEvent.
+     *
+     * @param main plugin class
+     */
+    public LandChangeEvent(Main main) {
+        this.main = main;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockPlace(BlockPlaceEvent e) {
+        Block block = e.getBlockPlaced();
+        updateBlock(block, e.getBlockReplacedState().getType(), block.getType());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockBreak(BlockBreakEvent e) {
+        removeBlock(e.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onEntityExplode(EntityExplodeEvent e) {
+        for (Block block : e.blockList()) {
+            removeBlock(block);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockExplode(BlockExplodeEvent e) {
+        for (Block block : e.blockList()) {
+            removeBlock(block);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onPistonExtend(BlockPistonExtendEvent e) {
+        moveBlocks(e.getBlocks(), e.getDirection());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onPistonRetract(BlockPistonRetractEvent e) {
+        moveBlocks(e.getBlocks(), e.getDirection());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockBurn(BlockBurnEvent e) {
+        removeBlock(e.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onLeavesDecay(LeavesDecayEvent e) {
+        removeBlock(e.getBlock());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockFade(BlockFadeEvent e) {
+        changeBlock(e.getBlock(), e.getNewState().getType());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockGrow(BlockGrowEvent e) {
+        changeBlock(e.getBlock(), e.getNewState().getType());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockForm(BlockFormEvent e) {
+        changeBlock(e.getBlock(), e.getNewState().getType());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockSpread(BlockSpreadEvent e) {
+        changeBlock(e.getBlock(), e.getNewState().getType());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onBlockFromTo(BlockFromToEvent e) {
+        Block source = e.getBlock();
+        Material type = source.getType();
+        changeBlock(e.getToBlock(), type);
+
+        // dragon eggs teleport rather than flow, leaving air behind
+        if (type == Material.DRAGON_EGG) {
+            removeBlock(source);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onEntityChangeBlock(EntityChangeBlockEvent e) {
+        changeBlock(e.getBlock(), e.getTo());
+    }
+
+    /**
+     * Gets the land index if there are indexed chunks to update.
+     *
+     * @return land index, or null if there is nothing to update
+     */
+    private LandIndex getLandIndex() {
+        if (main.getLandManager() == null) {
+            return null;
+        }
+        LandIndex landIndex = main.getLandManager().getLandIndex();
+        if (landIndex.isEmpty()) {
+            return null;
+        }
+        return landIndex;
+    }
+
+    /**
+     * Records a block changing from one material to another, if there are indexed chunks.
+     *
+     * @param block block that is changed
+     * @param oldType material of block before the change
+     * @param newType material of block after the change
+     */
+    private void updateBlock(Block block, Material oldType, Material newType) {
+        LandIndex landIndex = getLandIndex();
+        if (landIndex == null) {
+            return;
+        }
+        landIndex.updateBlock(block.getWorld(), block.getX(), block.getY(), block.getZ(),
+                oldType, newType);
+    }
+
+    /**
+     * Records a block being replaced by air.
+     *
+     * @param block block that is removed
+     */
+    private void removeBlock(Block block) {
+        updateBlock(block, block.getType(), Material.AIR);
+    }
+
+    /**
+     * Records a block being replaced by another material. Events are fired before the block
+     * changes, so the current type of the block is the type being replaced.
+     *
+     * @param block block that is changed
+     * @param newType material of block after the change
+     */
+    private void changeBlock(Block block, Material newType) {
+        updateBlock(block, block.getType(), newType);
+    }
+
+    /**
+     * Records blocks being moved by a piston. Events are fired before blocks move so the types
+     * are read first, then every block is removed before being added at its new position.
+     *
+     * @param blocks blocks that are moved
+     * @param direction direction that blocks are moved in
+     */
+    private void moveBlocks(List<Block> blocks, BlockFace direction) {
+        if (getLandIndex() == null) {
+            return;
+        }
+        Material[] types = new Material[blocks.size()];
+        for (int i = 0; i < types.length; i++) {
+            Block block = blocks.get(i);
+            types[i] = block.getType();
+            updateBlock(block, types[i], Material.AIR);
+        }
+        for (int i = 0; i < types.length; i++) {
+            updateBlock(blocks.get(i).getRelative(direction), Material.AIR, types[i]);
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package tk.taverncraft.survivaltop.history;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.bukkit.scheduler.BukkitRunnable;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.cache.EntityCache;
+import tk.taverncraft.survivaltop.cache.WealthType;
+import tk.taverncraft.survivaltop.logs.LogManager;
+import tk.taverncraft.survivaltop.utils.FileUtils;
+
+/**
+ * HistoryManager records the wealth of every entity at the end of each leaderboard update and
+ * answers how wealth has changed over a number of days. Each update is kept as one file in the
+ * history folder. Older updates are thinned out to one per day and removed once past the
+ * retention period.
+ */
+public class HistoryManager {
+    private static final long MILLIS_PER_DAY = 86400000L;
+    private static final int MAX_LOADED_RUNS = 8;
+
+    private final Main main;
+    private final File historyFolder;
+
+    // files of recorded runs mapped to the time of the run
+    private final ConcurrentSkipListMap<Long, File> runFiles = new ConcurrentSkipListMap<>();
+
+    // runs read from file for looking up changes, cleared when full
+    private final ConcurrentHashMap<Long, HistoryRun> loadedRuns = new ConcurrentHashMap<>();
+    private final Set<Long> loadingRuns = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor for HistoryManager.
+     *
+     * @param main plugin class
+     */
+    public HistoryManager(Main main) {
+        this.main = main;
+        this.historyFolder = new File(main.getDataFolder(), "history");
+        initializeValues();
+    }
+
+    /**
+     * Looks up the runs recorded in the history folder.
+     */
+    public synchronized void initializeValues() {
+        runFiles.clear();
+        loadedRuns.clear();
+        File[] files = historyFolder.listFiles((dir, fileName) -> fileName.endsWith(".dat"));
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String fileName = file.getName();
+            try {
+                runFiles.put(Long.parseLong(fileName.substring(0, fileName.length() - 4)), file);
+            } catch (NumberFormatException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Records the results of a leaderboard update in the background.
+     *
+     * @param entityCacheList caches of all entities on the leaderboard
+     */
+    public void recordRun(ArrayList<EntityCache> entityCacheList) {
+        if (!main.getOptions().isWealthHistoryEnabled() || entityCacheList.isEmpty()) {
+            return;
+        }
+        HistoryRun run = HistoryRun.fromEntities(System.currentTimeMillis(), entityCacheList);
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                saveRun(run);
+            }
+        }.runTaskAsynchronously(main);
+    }
+
+    /**
+     * Gets the change in wealth of an entity over a number of days without waiting on file
+     * reads. If the run to compare against has not been read yet, it is read in the background
+     * and null is returned until it is available.
+     *
+     * @param name uppercase name of entity
+     * @param type type of wealth
+     * @param days number of days to look back
+     *
+     * @return change in wealth, or null if not available
+     */
+    public Double getWealthChange(String name, WealthType type, int days) {
+        return getWealthChange(name, type, days, false);
+    }
+
+    /**
+     * Gets the change in wealth of an entity over a number of days, reading the run to compare
+     * against from file if needed. Should not be called on the main thread.
+     *
+     * @param name uppercase name of entity
+     * @param type type of wealth
+     * @param days number of days to look back
+     *
+     * @return change in wealth, or null if not available
+     */
+    public Double loadWealthChange(String name, WealthType type, int days) {
+        return getWealthChange(name, type, days, true);
+    }
+
+    /**
+     * Gets the change in wealth of an entity since the latest run recorded at least the given
+     * number of days ago. Entities that were not in the earlier run are treated as having had
+     * no wealth.
+     *
+     * @param name uppercase name of entity
+     * @param type type of wealth
+     * @param days number of days to look back
+     * @param wait whether to read the run from file if it has not been read yet
+     *
+     * @return change in wealth, or null if not available or history does not go back that far
+     */
+    private Double getWealthChange(String name, WealthType type, int days, boolean wait) {
+        if (!main.getOptions().isWealthHistoryEnabled() || runFiles.isEmpty()) {
+            return null;
+        }
+        EntityCache eCache = main.getCacheManager().getLeaderboardSnapshot().getEntityCache(name);
+        if (eCache == null) {
+            return null;
+        }
+        Long runTime = runFiles.floorKey(System.currentTimeMillis() - days * MILLIS_PER_DAY);
+        if (runTime == null) {
+            return null;
+        }
+
+        HistoryRun run = loadedRuns.get(runTime);
+        if (run == null) {
+            if (!wait) {
+                loadRunInBackground(runTime);
+                return null;
+            }
+            run = loadRun(runTime);
+            if (run == null) {
+                return null;
+            }
+        }
+        Double previousWealth = run.getWealth(name, type);
+        return eCache.getWealth(type) - (previousWealth == null ? 0 : previousWealth);
+    }
+
+    /**
+     * Writes a run to file, warns about large increases in wealth since the previous run and
+     * removes runs no longer needed.
+     *
+     * @param run run to save
+     */
+    private synchronized void saveRun(HistoryRun run) {
+        if (!historyFolder.exists() && !historyFolder.mkdirs()) {
+            LogManager.warn("Failed to create history folder.");
+            return;
+        }
+        File file = new File(historyFolder, run.getTime() + ".dat");
+        File tempFile = new File(historyFolder, run.getTime() + ".tmp");
+        try {
+            run.write(tempFile);
+            FileUtils.moveFile(tempFile, file);
+        } catch (IOException e) {
+            LogManager.error("Failed to save wealth history: " + e.getMessage());
+            return;
+        }
+
+        Map.Entry<Long, File> previousEntry = runFiles.lastEntry();
+        if (previousEntry != null) {
+            HistoryRun previousRun = loadRun(previousEntry.getKey());
+            if (previousRun != null) {
+                checkForSpikes(previousRun, run);
+            }
+        }
+        runFiles.put(run.getTime(), file);
+        cacheRun(run);
+        pruneRuns(run.getTime());
+    }
+
+    /**
+     * Warns about entities whose total wealth has risen by more than the configured percentage
+     * between two runs.
+     *
+     * @param previousRun earlier run
+     * @param run later run
+     */
+    private void checkForSpikes(HistoryRun previousRun, HistoryRun run) {
+        double spikePercent = main.getOptions().getHistorySpikeWarningPercent();
+        if (spikePercent <= 0) {
+            return;
+        }
+        for (String name : run.getNames()) {
+            Double previousWealth = previousRun.getWealth(name, WealthType.TOTAL);
+            if (previousWealth == null || previousWealth <= 0) {
+                continue;
+            }
+            double wealth = run.getWealth(name, WealthType.TOTAL);
+            double increase = (wealth - previousWealth) / previousWealth * 100;
+            if (increase >= spikePercent) {
+                LogManager.warn(String.format("Total wealth of %s rose by %.0f%% since the last "
+                        + "update (%.02f to %.02f).", name, increase, previousWealth, wealth));
+            }
+        }
+    }
+
+    /**
+     * Removes runs older than the retention period, and keeps only the last run of each day for
+     * runs older than the full resolution period.
+     *
+     * @param now time of the latest run
+     */
+    private void pruneRuns(long now) {
+        int retentionDays = main.getOptions().getHistoryRetentionDays();
+        if (retentionDays > 0) {
+            long cutoff = now - retentionDays * MILLIS_PER_DAY;
+            for (Long runTime : new ArrayList<>(runFiles.headMap(cutoff).keySet())) {
+                deleteRun(runTime);
+            }
+        }
+
+        long downsampleCutoff = now - main.getOptions().getHistoryFullResolutionDays()
+                * MILLIS_PER_DAY;
+        ZoneId zone = ZoneId.systemDefault();
+        Iterator<Long> runTimes = new ArrayList<>(runFiles.headMap(downsampleCutoff).keySet())
+                .iterator();
+        Long previousTime = null;
+        LocalDate previousDate = null;
+        while (runTimes.hasNext()) {
+            Long runTime = runTimes.next();
+            LocalDate date = Instant.ofEpochMilli(runTime).atZone(zone).toLocalDate();
+            if (date.equals(previousDate)) {
+                deleteRun(previousTime);
+            }
+            previousTime = runTime;
+            previousDate = date;
+        }
+    }
+
+    /**
+     * Deletes the file of a run.
+     *
+     * @param runTime time of run
+     */
+    private void deleteRun(long runTime) {
+        File file = runFiles.remove(runTime);
+        loadedRuns.remove(runTime);
+        if (file != null && !file.delete()) {
+            LogManager.warn("Failed to delete wealth history file " + file.getName());
+        }
+    }
+
+    /**
+     * Reads a run from file in the background if it is not already being read.
+     *
+     * @param runTime time of run
+     */
+    private void loadRunInBackground(long runTime) {
+        if (!loadingRuns.add(runTime)) {
+            return;
+        }
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                try {
+                    loadRun(runTime);
+                } finally {
+                    loadingRuns.remove(runTime);
+                }
+            }
+        }.runTaskAsynchronously(main);
+    }
+
+    /**
+     * Gets a run, reading it from file if it has not been read yet.
+     *
+     * @param runTime time of run
+     *
+     * @return run, or null if it could not be read
+     */
+    private HistoryRun loadRun(long runTime) {
+        HistoryRun run = loadedRuns.get(runTime);
+        if (run != null) {
+            return run;
+        }
+        File file = runFiles.get(runTime);
+        if (file == null) {
+            return null;
+        }
+        try {
+            run = HistoryRun.read(file);
+        } catch (IOException e) {
+            LogManager.error("Failed to read wealth history: " + e.getMessage());
+            runFiles.remove(runTime);
+            return null;
+        }
+        cacheRun(run);
+        return run;
+    }
+
+    /**
+     * Keeps a run in memory for later lookups.
+     *
+     * @param run run to keep
+     */
+    private void cacheRun(HistoryRun run) {
+        if (loadedRuns.size() >= MAX_LOADED_RUNS) {
+            loadedRuns.clear();
+        }
+        loadedRuns.put(run.getTime(), run);
+    }
+}
@@ -0,0 +1,182 @@
+package tk.taverncraft.survivaltop.history;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import tk.taverncraft.survivaltop.cache.EntityCache;
+import tk.taverncraft.survivaltop.cache.WealthType;
+
+/**
+ * Wealth breakdown of every entity as recorded at the end of a single leaderboard update. Values
+ * are stored by column, one array per wealth type, which keeps both the file and the loaded
+ * run compact.
+ */
+public class HistoryRun {
+    private static final int MAGIC = 0x53544852;
+    private static final int FORMAT_VERSION = 1;
+
+    private final long time;
+    private final HashMap<String, Integer> indexes;
+    private final double[][] columns;
+
+    /**
+     * Constructor for HistoryRun.
+     *
+     * @param time time of the run in milliseconds since epoch
+     * @param indexes row index of each entity mapped to uppercase entity name
+     * @param columns values of each wealth type, indexed by wealth type ordinal then row
+     */
+    private HistoryRun(long time, HashMap<String, Integer> indexes, double[][] columns) {
+        this.time = time;
+        this.indexes = indexes;
+        this.columns = columns;
+    }
+
+    /**
+     * Creates a run from the results of a leaderboard update.
+     *
+     * @param time time of the run in milliseconds since epoch
+     * @param entityCacheList caches of all entities on the leaderboard
+     *
+     * @return recorded run
+     */
+    public static HistoryRun fromEntities(long time, ArrayList<EntityCache> entityCacheList) {
+        WealthType[] types = WealthType.values();
+        int size = entityCacheList.size();
+        HashMap<String, Integer> indexes = new HashMap<>();
+        double[][] columns = new double[types.length][size];
+        for (int i = 0; i < size; i++) {
+            EntityCache eCache = entityCacheList.get(i);
+            indexes.put(eCache.getName().toUpperCase(), i);
+            for (WealthType type : types) {
+                columns[type.ordinal()][i] = eCache.getWealth(type);
+            }
+        }
+        return new HistoryRun(time, indexes, columns);
+    }
+
+    /**
+     * Reads a run from file.
+     *
+     * @param file file to read from
+     *
+     * @return recorded run
+     *
+     * @throws IOException if the file cannot be read or is not a history file
+     */
+    public static HistoryRun read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unknown history format in " + file.getName());
+            }
+            long time = in.readLong();
+            int size = in.readInt();
+            HashMap<String, Integer> indexes = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                indexes.put(in.readUTF(), i);
+            }
+
+            // columns are matched to wealth types by name so types can be added later
+            double[][] columns = new double[WealthType.values().length][size];
+            int columnCount = in.readInt();
+            for (int c = 0; c < columnCount; c++) {
+                WealthType type = getWealthType(in.readUTF());
+                for (int i = 0; i < size; i++) {
+                    double value = in.readDouble();
+                    if (type != null) {
+                        columns[type.ordinal()][i] = value;
+                    }
+                }
+            }
+            return new HistoryRun(time, indexes, columns);
+        }
+    }
+
+    /**
+     * Writes this run to file.
+     *
+     * @param file file to write to
+     *
+     * @throws IOException if the file cannot be written to
+     */
+    public void write(File file) throws IOException {
+        String[] names = new String[indexes.size()];
+        for (HashMap.Entry<String, Integer> entry : indexes.entrySet()) {
+            names[entry.getValue()] = entry.getKey();
+        }
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(file))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(time);
+            out.writeInt(names.length);
+            for (String name : names) {
+                out.writeUTF(name);
+            }
+            WealthType[] types = WealthType.values();
+            out.writeInt(types.length);
+            for (WealthType type : types) {
+                out.writeUTF(type.name());
+                for (double value : columns[type.ordinal()]) {
+                    out.writeDouble(value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the recorded wealth of an entity.
+     *
+     * @param name uppercase name of entity
+     * @param type type of wealth
+     *
+     * @return recorded wealth, or null if the entity was not recorded in this run
+     */
+    public Double getWealth(String name, WealthType type) {
+        Integer index = indexes.get(name);
+        if (index == null) {
+            return null;
+        }
+        return columns[type.ordinal()][index];
+    }
+
+    /**
+     * Gets the names of all entities recorded in this run.
+     *
+     * @return uppercase names of entities
+     */
+    public Set<String> getNames() {
+        return indexes.keySet();
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Gets the wealth type with the given name.
+     *
+     * @param name name of wealth type
+     *
+     * @return wealth type, or null if there is none with the name
+     */
+    private static WealthType getWealthType(String name) {
+        try {
+            return WealthType.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
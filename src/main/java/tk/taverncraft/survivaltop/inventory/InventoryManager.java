@@ -3,8 +3,6 @@ package tk.taverncraft.survivaltop.inventory;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Bukkit;
@@ -18,6 +16,9 @@ import org.bukkit.inventory.ItemStack;
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.inventory.holders.InventoryHolder;
 import tk.taverncraft.survivaltop.logs.LogManager;
+import tk.taverncraft.survivaltop.utils.ItemUtils;
+import tk.taverncraft.survivaltop.utils.types.MaterialAmounts;
+import tk.taverncraft.survivaltop.utils.types.MaterialWorthTable;
 import tk.taverncraft.survivaltop.utils.types.MutableInt;
 
 /**
@@ -26,10 +27,10 @@ import tk.taverncraft.survivaltop.utils.types.MutableInt;
 public class InventoryManager {
     private final Main main;
     private LinkedHashMap<String, Double> inventoryWorth;
-    private Set<String> inventoryMaterial;
+    private MaterialWorthTable inventoryWorthTable;
 
     // boolean to allow reloads to stop current inventory operations
-    private boolean stopOperations = false;
+    private volatile boolean stopOperations = false;
 
     // holders containing count of each material mapped to uuid
     private final ConcurrentHashMap<Integer, InventoryHolder> inventoryHolderMap =
@@ -69,7 +70,7 @@ public class InventoryManager {
                 LogManager.warn(e.getMessage());
             }
         }
-        inventoryMaterial = inventoryWorth.keySet();
+        inventoryWorthTable = new MaterialWorthTable(inventoryWorth);
     }
 
     /**
@@ -78,7 +79,7 @@ public class InventoryManager {
      * @param id key to identify task
      */
     public void createHolder(int id) {
-        inventoryHolderMap.put(id, new InventoryHolder(inventoryMaterial));
+        inventoryHolderMap.put(id, new InventoryHolder(inventoryWorthTable));
     }
 
     /**
@@ -109,13 +110,10 @@ public class InventoryManager {
      * @return double value representing total worth of inventories
      */
     public double getAllInventoriesWorth(InventoryHolder inventoryHolder) {
-        double totalInventoryWorth = 0;
-        HashMap<String, MutableInt> counter = inventoryHolder.getCounter();
-        for (Map.Entry<String, MutableInt> map : counter.entrySet()) {
-            // count multiply by worth, then added to total
-            totalInventoryWorth += map.getValue().get() * inventoryWorth.get(map.getKey());
+        if (inventoryHolder == null) {
+            return 0;
         }
-        return totalInventoryWorth;
+        return inventoryHolder.getTotalWorth();
     }
 
     /**
@@ -183,14 +181,35 @@ public class InventoryManager {
      * @param inventory inventory to process
      */
     private void processInventoryItems(int id, Inventory inventory) {
+        InventoryHolder inventoryHolder = inventoryHolderMap.get(id);
+        boolean includeNestedItems = main.getOptions().isIncludeNestedItems();
         for (ItemStack itemStack : inventory) {
             if (itemStack == null) {
                 continue;
             }
-            String material = itemStack.getType().name();
-            if (inventoryMaterial.contains(material)) {
-                inventoryHolderMap.get(id).addToHolder(material,
-                    itemStack.getAmount());
+            Material material = itemStack.getType();
+            if (inventoryWorthTable.contains(material)) {
+                inventoryHolder.addToHolder(material, itemStack.getAmount());
+            }
+            if (includeNestedItems && ItemUtils.mayHaveContents(itemStack)) {
+                processNestedItems(inventoryHolder, itemStack);
+            }
+        }
+    }
+
+    /**
+     * Processes the worth of items inside a shulker box or bundle.
+     *
+     * @param inventoryHolder holder to add items to
+     * @param itemStack item holding other items
+     */
+    private void processNestedItems(InventoryHolder inventoryHolder, ItemStack itemStack) {
+        MaterialAmounts contents = ItemUtils.getContents(itemStack);
+        for (int i = 0; i < contents.size(); i++) {
+            Material material = contents.getMaterial(i);
+            if (inventoryWorthTable.contains(material)) {
+                inventoryHolder.addToHolder(material,
+                        contents.getAmount(i) * itemStack.getAmount());
             }
         }
     }
@@ -3,9 +3,14 @@ package tk.taverncraft.survivaltop.land;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 
+import org.bukkit.Bukkit;
+
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.land.claimplugins.*;
+import tk.taverncraft.survivaltop.land.index.LandIndex;
+import tk.taverncraft.survivaltop.land.index.LandIndexStorage;
 import tk.taverncraft.survivaltop.land.processor.LandProcessor;
+import tk.taverncraft.survivaltop.logs.LogManager;
 import tk.taverncraft.survivaltop.utils.types.ClaimInfo;
 import tk.taverncraft.survivaltop.utils.types.MutableInt;
 
@@ -19,6 +24,10 @@ public class LandManager {
     private LandProcessor landProcessor;
     private LandClaimPluginHandler landClaimPluginHandler;
 
+    // material counts of scanned chunks, kept across reloads
+    private final LandIndex landIndex;
+    private final LandIndexStorage landIndexStorage;
+
     /**
      * Constructor for LandManager.
      *
@@ -26,8 +35,31 @@ public class LandManager {
      */
     public LandManager(Main main) throws NullPointerException {
         this.main = main;
+        this.landIndex = new LandIndex(main);
+        this.landIndexStorage = new LandIndexStorage(main);
         initializeLandOperations();
         initializeLandType();
+        loadLandIndex();
+    }
+
+    /**
+     * Loads the land index saved on disk asynchronously, if enabled.
+     */
+    private void loadLandIndex() {
+        if (!main.getOptions().isPersistLandIndex() || !landIndex.isEnabled()) {
+            return;
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(main, () -> landIndexStorage.load(landIndex));
+    }
+
+    /**
+     * Saves the land index to disk asynchronously, if enabled.
+     */
+    public void saveLandIndex() {
+        if (!main.getOptions().isPersistLandIndex() || landIndex.isEmpty()) {
+            return;
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(main, () -> landIndexStorage.save(landIndex));
     }
 
     /**
@@ -77,9 +109,58 @@ public class LandManager {
      * Initializes land operations helper.
      */
     public void initializeLandOperations() {
+        if (landProcessor != null) {
+            landProcessor.shutdown();
+        }
+        if (!landIndex.isEnabled()) {
+            // counts are no longer kept up to date so they cannot be trusted if enabled again
+            landIndex.clear();
+        }
         this.landProcessor = new LandProcessor(main);
     }
 
+    /**
+     * Gets the index of material counts for scanned chunks.
+     *
+     * @return land index
+     */
+    public LandIndex getLandIndex() {
+        return landIndex;
+    }
+
+    /**
+     * Shuts down the land operations helper, called when the plugin is disabled.
+     */
+    public void shutdown() {
+        landProcessor.shutdown();
+        if (main.getOptions().isPersistLandIndex() && !landIndex.isEmpty()) {
+            landIndexStorage.save(landIndex);
+        }
+    }
+
+    /**
+     * Resets the land scan throughput stats, called when a leaderboard update starts.
+     */
+    public void resetScanStats() {
+        landProcessor.resetScanStats();
+    }
+
+    /**
+     * Logs the land scan throughput since the stats were last reset, so that changes in scan
+     * performance can be compared across updates and releases.
+     */
+    public void logScanStats() {
+        long blocks = landProcessor.getBlocksScanned();
+        long nanos = landProcessor.getScanNanos();
+        if (blocks == 0 || nanos == 0) {
+            return;
+        }
+        long blocksPerSecond = (long) (blocks / (nanos / 1_000_000_000.0));
+        LogManager.info(String.format("Land scan: %,d blocks in %.1fs of scan time "
+                + "(%,d blocks/s per thread).", blocks, nanos / 1_000_000_000.0,
+                blocksPerSecond));
+    }
+
     /**
      * Cleans up holders after stats update.
      *
@@ -97,6 +178,9 @@ public class LandManager {
      */
     public void processEntityLand(String name, int id) {
         landClaimPluginHandler.processEntityLand(name, id);
+
+        // scans remaining chunks queued for snapshots or parallel scanning (if any)
+        landProcessor.flushPendingRegions(id);
     }
 
     /**
@@ -142,16 +226,32 @@ public class LandManager {
     }
 
     /**
-     * Processes spawner types on the main thread for stats.
+     * Processes the worth of spawners until done or the deadline has passed.
      *
      * @param id key to identify task
+     * @param deadline time in nanoseconds to stop processing at
+     *
+     * @return true if all spawners have been processed, false otherwise
+     */
+    public boolean processSpawnerTypes(int id, long deadline) {
+        return landProcessor.processSpawnerTypes(id, deadline);
+    }
+
+    /**
+     * Copies the contents of containers on the main thread until done or the deadline has
+     * passed.
+     *
+     * @param id key to identify task
+     * @param deadline time in nanoseconds to stop copying at
+     *
+     * @return true if all containers have been copied, false otherwise
      */
-    public void processSpawnerTypes(int id) {
-        landProcessor.processSpawnerTypes(id);
+    public boolean captureContainerItems(int id, long deadline) {
+        return landProcessor.captureContainerItems(id, deadline);
     }
 
     /**
-     * Processes container items on the main thread for stats.
+     * Processes the worth of copied container items, safe to call asynchronously.
      *
      * @param id key to identify task
      */
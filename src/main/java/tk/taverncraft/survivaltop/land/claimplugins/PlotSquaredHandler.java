@@ -91,10 +91,10 @@ public class PlotSquaredHandler implements LandClaimPluginHandler {
      */
     public void processEntityClaim(int id, Location l1, Location l2, World world) {
         double minX = Math.min(l1.getX(), l2.getX());
-        double minY = main.getOptions().getMinLandHeight();
+        double minY = main.getOptions().getMinLandHeight(world);
         double minZ = Math.min(l1.getZ(), l2.getZ());
         double maxX = Math.max(l1.getX(), l2.getX()) + 1;
-        double maxY = main.getOptions().getMaxLandHeight();
+        double maxY = main.getOptions().getMaxLandHeight(world);
         double maxZ = Math.max(l1.getZ(), l2.getZ()) + 1;
         landProcessor.processEntityClaim(id, maxX, minX, maxY, minY, maxZ, minZ, world);
     }
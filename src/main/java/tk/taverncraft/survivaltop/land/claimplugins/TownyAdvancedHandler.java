@@ -96,8 +96,8 @@ public class TownyAdvancedHandler implements LandClaimPluginHandler {
      */
     public void processEntityClaim(int id, double maxX, double maxZ, double minX, double minZ,
             World world) {
-        double minY = this.main.getOptions().getMinLandHeight();
-        double maxY = this.main.getOptions().getMaxLandHeight();
+        double minY = this.main.getOptions().getMinLandHeight(world);
+        double maxY = this.main.getOptions().getMaxLandHeight(world);
         landProcessor.processEntityClaim(id, maxX, minX, maxY, minY, maxZ, minZ, world);
     }
 
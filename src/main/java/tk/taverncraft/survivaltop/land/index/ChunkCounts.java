@@ -0,0 +1,300 @@
+package tk.taverncraft.survivaltop.land.index;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ObjIntConsumer;
+
+import org.bukkit.Material;
+
+/**
+ * Holds the count of every material within the scanned height range of a single chunk, along
+ * with the positions of blocks such as spawners and containers that have to be looked up
+ * again when calculating worth. Counts are kept sorted by material ordinal since a chunk only
+ * contains a small number of distinct materials.
+ */
+public class ChunkCounts {
+    private static final Material[] materials = Material.values();
+
+    private final int minY;
+    private final int maxY;
+    private final long scanTime;
+
+    private short[] ordinals;
+    private int[] amounts;
+    private int size;
+
+    // positions of spawners and containers packed by chunk relative coordinates
+    private final HashMap<Integer, Material> positions;
+
+    /**
+     * Constructor for ChunkCounts.
+     *
+     * @param minY min y coordinate scanned (inclusive)
+     * @param maxY max y coordinate scanned (exclusive)
+     * @param scanTime time that the chunk was scanned at
+     * @param materialCounts count of each material indexed by material ordinal
+     * @param positions positions of spawners and containers in the chunk
+     */
+    public ChunkCounts(int minY, int maxY, long scanTime, int[] materialCounts,
+            HashMap<Integer, Material> positions) {
+        this.minY = minY;
+        this.maxY = maxY;
+        this.scanTime = scanTime;
+        this.positions = positions;
+        int distinct = 0;
+        for (int i = 0; i < materialCounts.length; i++) {
+            if (materialCounts[i] > 0 && !isAir(materials[i])) {
+                distinct++;
+            }
+        }
+        this.ordinals = new short[Math.max(distinct, 4)];
+        this.amounts = new int[ordinals.length];
+        for (int i = 0; i < materialCounts.length; i++) {
+            if (materialCounts[i] > 0 && !isAir(materials[i])) {
+                ordinals[size] = (short) i;
+                amounts[size] = materialCounts[i];
+                size++;
+            }
+        }
+    }
+
+    /**
+     * Records a block being added to the chunk.
+     *
+     * @param material material of block
+     * @param x x coordinate of block
+     * @param y y coordinate of block
+     * @param z z coordinate of block
+     */
+    public synchronized void add(Material material, int x, int y, int z) {
+        if (y < minY || y >= maxY || isAir(material)) {
+            return;
+        }
+        int index = Arrays.binarySearch(ordinals, 0, size, (short) material.ordinal());
+        if (index >= 0) {
+            amounts[index]++;
+        } else {
+            insert(-index - 1, material.ordinal());
+        }
+        if (LandIndex.isPositional(material)) {
+            positions.put(pack(x, y, z), material);
+        }
+    }
+
+    /**
+     * Records a block being removed from the chunk.
+     *
+     * @param material material of block
+     * @param x x coordinate of block
+     * @param y y coordinate of block
+     * @param z z coordinate of block
+     */
+    public synchronized void remove(Material material, int x, int y, int z) {
+        if (y < minY || y >= maxY || isAir(material)) {
+            return;
+        }
+        int index = Arrays.binarySearch(ordinals, 0, size, (short) material.ordinal());
+        if (index >= 0 && amounts[index] > 0) {
+            amounts[index]--;
+        }
+        if (LandIndex.isPositional(material)) {
+            positions.remove(pack(x, y, z));
+        }
+    }
+
+    /**
+     * Inserts a new material with a count of 1 at the given index.
+     *
+     * @param index index to insert at
+     * @param ordinal ordinal of material
+     */
+    private void insert(int index, int ordinal) {
+        if (size == ordinals.length) {
+            ordinals = Arrays.copyOf(ordinals, size * 2);
+            amounts = Arrays.copyOf(amounts, size * 2);
+        }
+        System.arraycopy(ordinals, index, ordinals, index + 1, size - index);
+        System.arraycopy(amounts, index, amounts, index + 1, size - index);
+        ordinals[index] = (short) ordinal;
+        amounts[index] = 1;
+        size++;
+    }
+
+    /**
+     * Passes the count of every material in the chunk to the given consumer. The consumer is
+     * called while holding the lock on this chunk so it should not do any blocking work.
+     *
+     * @param consumer consumer of material and count
+     */
+    public synchronized void forEachCount(ObjIntConsumer<Material> consumer) {
+        for (int i = 0; i < size; i++) {
+            if (amounts[i] > 0) {
+                consumer.accept(materials[ordinals[i]], amounts[i]);
+            }
+        }
+    }
+
+    /**
+     * Gets a copy of the positions of spawners and containers in the chunk.
+     *
+     * @return map of packed position to material
+     */
+    public synchronized HashMap<Integer, Material> getPositions() {
+        return new HashMap<>(positions);
+    }
+
+    /**
+     * Writes the counts of the chunk to a stream, with materials written as their ordinals.
+     *
+     * @param out stream to write to
+     *
+     * @throws IOException if the stream cannot be written to
+     */
+    synchronized void write(DataOutputStream out) throws IOException {
+        out.writeInt(minY);
+        out.writeInt(maxY);
+        out.writeLong(scanTime);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeShort(ordinals[i]);
+            out.writeInt(amounts[i]);
+        }
+        out.writeInt(positions.size());
+        for (Map.Entry<Integer, Material> entry : positions.entrySet()) {
+            out.writeInt(entry.getKey());
+            out.writeShort(entry.getValue().ordinal());
+        }
+    }
+
+    /**
+     * Reads the counts of a chunk written by {@link #write(DataOutputStream)}. Materials that
+     * no longer exist are skipped.
+     *
+     * @param in stream to read from
+     * @param palette materials mapped to the ordinals they were written with
+     * @param buffer array to count materials into, which is cleared again before returning
+     *
+     * @return counts of chunk
+     *
+     * @throws IOException if the stream cannot be read from
+     */
+    static ChunkCounts read(DataInputStream in, Material[] palette, int[] buffer)
+            throws IOException {
+        int minY = in.readInt();
+        int maxY = in.readInt();
+        long scanTime = in.readLong();
+        int size = in.readInt();
+        short[] readOrdinals = new short[size];
+        for (int i = 0; i < size; i++) {
+            Material material = getPaletteMaterial(palette, in.readShort());
+            int amount = in.readInt();
+            if (material != null) {
+                buffer[material.ordinal()] += amount;
+                readOrdinals[i] = (short) material.ordinal();
+            }
+        }
+        int positionCount = in.readInt();
+        HashMap<Integer, Material> positions = new HashMap<>();
+        for (int i = 0; i < positionCount; i++) {
+            int position = in.readInt();
+            Material material = getPaletteMaterial(palette, in.readShort());
+            if (material != null) {
+                positions.put(position, material);
+            }
+        }
+        ChunkCounts counts = new ChunkCounts(minY, maxY, scanTime, buffer, positions);
+        for (short ordinal : readOrdinals) {
+            buffer[ordinal] = 0;
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the material that was written with the given ordinal.
+     *
+     * @param palette materials mapped to the ordinals they were written with
+     * @param ordinal ordinal that was written
+     *
+     * @return material, or null if it no longer exists
+     */
+    private static Material getPaletteMaterial(Material[] palette, short ordinal) {
+        if (ordinal < 0 || ordinal >= palette.length) {
+            return null;
+        }
+        return palette[ordinal];
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    public long getScanTime() {
+        return scanTime;
+    }
+
+    /**
+     * Packs the chunk relative coordinates of a block into an int.
+     *
+     * @param x x coordinate of block
+     * @param y y coordinate of block
+     * @param z z coordinate of block
+     *
+     * @return packed position
+     */
+    public static int pack(int x, int y, int z) {
+        return (y << 8) | ((x & 15) << 4) | (z & 15);
+    }
+
+    /**
+     * Gets the chunk relative x coordinate of a packed position.
+     *
+     * @param position packed position
+     *
+     * @return chunk relative x coordinate
+     */
+    public static int getX(int position) {
+        return (position >> 4) & 15;
+    }
+
+    /**
+     * Gets the y coordinate of a packed position.
+     *
+     * @param position packed position
+     *
+     * @return y coordinate
+     */
+    public static int getY(int position) {
+        return position >> 8;
+    }
+
+    /**
+     * Gets the chunk relative z coordinate of a packed position.
+     *
+     * @param position packed position
+     *
+     * @return chunk relative z coordinate
+     */
+    public static int getZ(int position) {
+        return position & 15;
+    }
+
+    /**
+     * Checks if a material is air, which is never counted.
+     *
+     * @param material material to check
+     *
+     * @return true if material is air, false otherwise
+     */
+    private static boolean isAir(Material material) {
+        return material == Material.AIR || material == Material.CAVE_AIR
+                || material == Material.VOID_AIR;
+    }
+}
@@ -0,0 +1,170 @@
+package tk.taverncraft.survivaltop.land.index;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.land.processor.consumers.ContainerConsumer;
+import tk.taverncraft.survivaltop.utils.types.ChunkRegion;
+
+/**
+ * Index of material counts for each scanned chunk, shared by all entities. With incremental
+ * land tracking, chunks are seeded by a full scan and then kept up to date by block change
+ * events, so later calculations can sum the counts of a chunk instead of scanning it again.
+ * Otherwise the index acts as a cache, where chunks are dropped as soon as a block in them
+ * changes. Counts older than the reconcile interval or cache duration are not returned,
+ * forcing the chunk to be scanned again.
+ */
+public class LandIndex {
+    private final Main main;
+
+    // chunk counts mapped to chunk key, mapped to world uid
+    private final ConcurrentHashMap<UUID, ConcurrentHashMap<Long, ChunkCounts>> worldChunks =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for LandIndex.
+     *
+     * @param main plugin class
+     */
+    public LandIndex(Main main) {
+        this.main = main;
+    }
+
+    /**
+     * Checks if chunk counts are indexed, either for incremental land tracking or as a cache.
+     *
+     * @return true if chunk counts are indexed, false otherwise
+     */
+    public boolean isEnabled() {
+        return main.getOptions().isIncrementalLandTracking()
+                || main.getOptions().getChunkCacheDuration() > 0;
+    }
+
+    /**
+     * Gets the counts of a chunk if it has been indexed for the given height range and has not
+     * passed the reconcile interval or cache duration.
+     *
+     * @param world world that the chunk is in
+     * @param chunkKey key of chunk
+     * @param minY min y coordinate (inclusive)
+     * @param maxY max y coordinate (exclusive)
+     *
+     * @return counts of chunk, or null if chunk has to be scanned
+     */
+    public ChunkCounts getChunk(World world, long chunkKey, int minY, int maxY) {
+        ConcurrentHashMap<Long, ChunkCounts> chunks = worldChunks.get(world.getUID());
+        if (chunks == null) {
+            return null;
+        }
+        ChunkCounts counts = chunks.get(chunkKey);
+        if (counts == null || counts.getMinY() != minY || counts.getMaxY() != maxY) {
+            return null;
+        }
+        long duration = main.getOptions().isIncrementalLandTracking()
+                ? main.getOptions().getIncrementalReconcileInterval()
+                : main.getOptions().getChunkCacheDuration();
+        if (System.currentTimeMillis() - counts.getScanTime() > duration * 1000) {
+            chunks.remove(chunkKey, counts);
+            return null;
+        }
+        return counts;
+    }
+
+    /**
+     * Puts the counts of a freshly scanned chunk into the index.
+     *
+     * @param world world that the chunk is in
+     * @param chunkKey key of chunk
+     * @param counts counts of chunk
+     */
+    public void putChunk(World world, long chunkKey, ChunkCounts counts) {
+        worldChunks.computeIfAbsent(world.getUID(), k -> new ConcurrentHashMap<>())
+                .put(chunkKey, counts);
+    }
+
+    /**
+     * Puts the counts of a chunk loaded from disk into the index.
+     *
+     * @param worldUid uid of world that the chunk is in
+     * @param chunkKey key of chunk
+     * @param counts counts of chunk
+     */
+    void putChunk(UUID worldUid, long chunkKey, ChunkCounts counts) {
+        worldChunks.computeIfAbsent(worldUid, k -> new ConcurrentHashMap<>())
+                .putIfAbsent(chunkKey, counts);
+    }
+
+    /**
+     * Gets the indexed chunks of every world, used for saving the index to disk.
+     *
+     * @return chunk counts mapped to chunk key, mapped to world uid
+     */
+    ConcurrentHashMap<UUID, ConcurrentHashMap<Long, ChunkCounts>> getWorldChunks() {
+        return worldChunks;
+    }
+
+    /**
+     * Updates the counts of an indexed chunk when a block changes, or drops the chunk if
+     * counts are only cached. Changes in chunks that have not been indexed are ignored.
+     *
+     * @param world world that the block is in
+     * @param x x coordinate of block
+     * @param y y coordinate of block
+     * @param z z coordinate of block
+     * @param oldType material of block before the change
+     * @param newType material of block after the change
+     */
+    public void updateBlock(World world, int x, int y, int z, Material oldType,
+            Material newType) {
+        if (oldType == newType) {
+            return;
+        }
+        ConcurrentHashMap<Long, ChunkCounts> chunks = worldChunks.get(world.getUID());
+        if (chunks == null) {
+            return;
+        }
+        long chunkKey = ChunkRegion.getChunkKey(x >> 4, z >> 4);
+        if (!main.getOptions().isIncrementalLandTracking()) {
+            chunks.remove(chunkKey);
+            return;
+        }
+        ChunkCounts counts = chunks.get(chunkKey);
+        if (counts == null) {
+            return;
+        }
+        counts.remove(oldType, x, y, z);
+        counts.add(newType, x, y, z);
+    }
+
+    /**
+     * Checks if there are any indexed chunks.
+     *
+     * @return true if no chunks are indexed, false otherwise
+     */
+    public boolean isEmpty() {
+        return worldChunks.isEmpty();
+    }
+
+    /**
+     * Removes all indexed chunks.
+     */
+    public void clear() {
+        worldChunks.clear();
+    }
+
+    /**
+     * Checks if the position of a material has to be indexed, which is the case for blocks
+     * that are looked up again when calculating worth.
+     *
+     * @param material material to check
+     *
+     * @return true if positions of the material are indexed, false otherwise
+     */
+    public static boolean isPositional(Material material) {
+        return material == Material.SPAWNER || ContainerConsumer.isAllowedType(material);
+    }
+}
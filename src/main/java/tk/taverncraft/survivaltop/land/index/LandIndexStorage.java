@@ -0,0 +1,165 @@
+package tk.taverncraft.survivaltop.land.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.logs.LogManager;
+import tk.taverncraft.survivaltop.utils.FileUtils;
+
+/**
+ * Saves and loads the land index as one compressed binary file per world, so chunk counts
+ * survive restarts. Files are stamped with the world uid and server version, and are ignored
+ * if either no longer matches since block data may have changed.
+ */
+public class LandIndexStorage {
+    private static final int MAGIC = 0x53544958;
+    private static final int FORMAT_VERSION = 1;
+
+    private final File indexFolder;
+
+    /**
+     * Constructor for LandIndexStorage.
+     *
+     * @param main plugin class
+     */
+    public LandIndexStorage(Main main) {
+        this.indexFolder = new File(main.getDataFolder() + "/landIndex");
+    }
+
+    /**
+     * Saves every world of the land index to disk. Each file is written to a temporary file
+     * first and then moved into place so a crash never leaves a partially written index.
+     *
+     * @param landIndex index to save
+     */
+    public synchronized void save(LandIndex landIndex) {
+        if (!indexFolder.exists() && !indexFolder.mkdirs()) {
+            LogManager.warn("Failed to create land index folder.");
+            return;
+        }
+        for (Map.Entry<UUID, ConcurrentHashMap<Long, ChunkCounts>> entry
+                : landIndex.getWorldChunks().entrySet()) {
+            File file = new File(indexFolder, entry.getKey() + ".dat");
+            File tempFile = new File(indexFolder, entry.getKey() + ".dat.tmp");
+            try {
+                writeWorld(tempFile, entry.getKey(), entry.getValue());
+                FileUtils.moveFile(tempFile, file);
+            } catch (IOException e) {
+                LogManager.warn("Failed to save land index: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Loads every saved world into the land index. Chunks already in the index are kept since
+     * they are newer than those on disk.
+     *
+     * @param landIndex index to load into
+     */
+    public synchronized void load(LandIndex landIndex) {
+        File[] files = indexFolder.listFiles((dir, name) -> name.endsWith(".dat"));
+        if (files == null) {
+            return;
+        }
+        int chunksLoaded = 0;
+        for (File file : files) {
+            try {
+                chunksLoaded += readWorld(file, landIndex);
+            } catch (IOException | IllegalArgumentException e) {
+                LogManager.warn("Failed to load land index from " + file.getName() + ": "
+                        + e.getMessage());
+            }
+        }
+        if (chunksLoaded > 0) {
+            LogManager.info("Loaded " + chunksLoaded + " chunks from land index.");
+        }
+    }
+
+    /**
+     * Writes the chunks of a world to a file.
+     *
+     * @param file file to write to
+     * @param worldUid uid of world
+     * @param chunks chunk counts mapped to chunk key
+     *
+     * @throws IOException if the file cannot be written to
+     */
+    private void writeWorld(File file, UUID worldUid, ConcurrentHashMap<Long, ChunkCounts> chunks)
+            throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(file))))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(Bukkit.getBukkitVersion());
+            out.writeLong(worldUid.getMostSignificantBits());
+            out.writeLong(worldUid.getLeastSignificantBits());
+
+            // material names are saved so ordinals can be mapped back after material changes
+            Material[] materials = Material.values();
+            out.writeInt(materials.length);
+            for (Material material : materials) {
+                out.writeUTF(material.name());
+            }
+
+            for (Map.Entry<Long, ChunkCounts> entry : chunks.entrySet()) {
+                out.writeBoolean(true);
+                out.writeLong(entry.getKey());
+                entry.getValue().write(out);
+            }
+            out.writeBoolean(false);
+        }
+    }
+
+    /**
+     * Reads the chunks of a world from a file into the land index.
+     *
+     * @param file file to read from
+     * @param landIndex index to load into
+     *
+     * @return number of chunks loaded
+     *
+     * @throws IOException if the file cannot be read from
+     */
+    private int readWorld(File file, LandIndex landIndex) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file))))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION
+                    || !in.readUTF().equals(Bukkit.getBukkitVersion())) {
+                return 0;
+            }
+            UUID worldUid = new UUID(in.readLong(), in.readLong());
+            if (!file.getName().equals(worldUid + ".dat")) {
+                return 0;
+            }
+
+            Material[] palette = new Material[in.readInt()];
+            for (int i = 0; i < palette.length; i++) {
+                palette[i] = Material.getMaterial(in.readUTF());
+            }
+
+            int[] buffer = new int[Material.values().length];
+            int chunksLoaded = 0;
+            while (in.readBoolean()) {
+                long chunkKey = in.readLong();
+                landIndex.putChunk(worldUid, chunkKey, ChunkCounts.read(in, palette, buffer));
+                chunksLoaded++;
+            }
+            return chunksLoaded;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package tk.taverncraft.survivaltop.land.processor;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+
+/**
+ * Operation performed on each block scanned in a land. Operations are bound to the holders
+ * of a task beforehand and receive the block material directly, so that no lookups are done
+ * and no live block has to be fetched per scanned block unless needed.
+ */
+@FunctionalInterface
+public interface LandOperation {
+
+    /**
+     * Applies the operation to a scanned block.
+     *
+     * @param material material of the block
+     * @param world world that the block is in
+     * @param x x coordinate of block
+     * @param y y coordinate of block
+     * @param z z coordinate of block
+     *
+     * @return true if the block was consumed, false otherwise
+     */
+    boolean apply(Material material, World world, int x, int y, int z);
+}
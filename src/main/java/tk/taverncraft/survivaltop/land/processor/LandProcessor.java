@@ -3,42 +3,84 @@ package tk.taverncraft.survivaltop.land.processor;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.ArrayList;
-import java.util.function.BiFunction;
-
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntFunction;
+
+import org.bukkit.Bukkit;
 import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
 import org.bukkit.Material;
 import org.bukkit.World;
-import org.bukkit.block.Block;
 import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.EntityType;
 
 import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.land.index.ChunkCounts;
+import tk.taverncraft.survivaltop.land.index.LandIndex;
 import tk.taverncraft.survivaltop.land.processor.consumers.BlockConsumer;
 import tk.taverncraft.survivaltop.land.processor.consumers.ContainerConsumer;
 import tk.taverncraft.survivaltop.land.processor.consumers.SpawnerConsumer;
+import tk.taverncraft.survivaltop.land.processor.holders.BlockHolder;
 import tk.taverncraft.survivaltop.logs.LogManager;
+import tk.taverncraft.survivaltop.utils.WorldUtils;
+import tk.taverncraft.survivaltop.utils.types.ChunkRegion;
+import tk.taverncraft.survivaltop.utils.types.MaterialWorthTable;
 import tk.taverncraft.survivaltop.utils.types.MutableInt;
 
 /**
  * Helper function for loading the logic of calculations.
  */
 public class LandProcessor {
+    // cached since Material.values() copies the whole enum on every call
+    private static final int MATERIAL_COUNT = Material.values().length;
+
     private final Main main;
     private BlockConsumer blockConsumer;
     private SpawnerConsumer spawnerConsumer;
     private ContainerConsumer containerConsumer;
 
     // boolean to allow reloads to stop current operations
-    private boolean stopOperations = false;
+    private volatile boolean stopOperations = false;
+
+    // list of operations to perform for calculating land wealth, bound to each task when created
+    ArrayList<IntFunction<LandOperation>> landOperations = new ArrayList<>();
+
+    // land operations bound to the holders of each task, mapped to task id
+    private final ConcurrentHashMap<Integer, LandOperation[]> taskOperations =
+            new ConcurrentHashMap<>();
+
+    // chunk regions waiting to be snapshotted or scanned in parallel, mapped to task id
+    private final ConcurrentHashMap<Integer, ArrayList<ChunkRegion>> pendingRegions =
+            new ConcurrentHashMap<>();
+
+    // pool for scanning large claims in parallel, created when first needed
+    private ForkJoinPool claimScanPool;
+
+    // worker holders use negative ids so they never clash with task ids
+    private final AtomicInteger workerIdCounter = new AtomicInteger(0);
 
-    // list of operations to perform for calculating land wealth
-    ArrayList<BiFunction<Integer, Block, Boolean>> landOperations = new ArrayList<>();
+    // blocks scanned and time spent scanning them, used for reporting scan throughput
+    private final LongAdder blocksScanned = new LongAdder();
+    private final LongAdder scanNanos = new LongAdder();
 
     // worth of blocks, spawners and containers
     private LinkedHashMap<String, Double> blockWorth = new LinkedHashMap<>();
     private LinkedHashMap<String, Double> spawnerWorth = new LinkedHashMap<>();
     private LinkedHashMap<String, Double> containerWorth = new LinkedHashMap<>();
 
+    // worth of blocks and container items indexed by material ordinal for scanning
+    private MaterialWorthTable blockWorthTable;
+    private MaterialWorthTable containerWorthTable;
+
     /**
      * Constructor for LandProcessor.
      *
@@ -58,15 +100,17 @@ public class LandProcessor {
         this.loadBlockWorth();
         this.loadSpawnerWorth();
         this.loadContainerWorth();
+        this.blockWorthTable = new MaterialWorthTable(blockWorth);
+        this.containerWorthTable = new MaterialWorthTable(containerWorth);
     }
 
     /**
      * Initializes block, spawner and container operations for land.
      */
     private void initializeLandSubOperations() {
-        blockConsumer = new BlockConsumer(blockWorth);
+        blockConsumer = new BlockConsumer(blockWorthTable);
         spawnerConsumer = new SpawnerConsumer(main, this, spawnerWorth);
-        containerConsumer = new ContainerConsumer(main, this, containerWorth);
+        containerConsumer = new ContainerConsumer(main, this, containerWorthTable);
     }
 
     /**
@@ -76,16 +120,16 @@ public class LandProcessor {
         landOperations = new ArrayList<>();
 
         if (main.getOptions().landIsIncluded()) {
-            landOperations.add(blockConsumer.getOperation());
+            landOperations.add(blockConsumer::getOperation);
         } else {
             return;
         }
         if (main.getOptions().spawnerIsIncluded()) {
-            landOperations.add(spawnerConsumer.getOperation());
+            landOperations.add(spawnerConsumer::getOperation);
         }
 
         if (main.getOptions().containerIsIncluded()) {
-            landOperations.add(containerConsumer.getOperation());
+            landOperations.add(containerConsumer::getOperation);
         }
     }
 
@@ -155,6 +199,14 @@ public class LandProcessor {
         blockConsumer.createHolder(id);
         spawnerConsumer.createHolder(id);
         containerConsumer.createHolder(id);
+        pendingRegions.put(id, new ArrayList<>());
+
+        // operations are bound after holders are created so scans need no lookups per block
+        LandOperation[] operations = new LandOperation[landOperations.size()];
+        for (int i = 0; i < operations.length; i++) {
+            operations[i] = landOperations.get(i).apply(id);
+        }
+        taskOperations.put(id, operations);
     }
 
     /**
@@ -166,6 +218,33 @@ public class LandProcessor {
         blockConsumer.doCleanUp(id);
         spawnerConsumer.doCleanUp(id);
         containerConsumer.doCleanUp(id);
+        pendingRegions.remove(id);
+        taskOperations.remove(id);
+    }
+
+    /**
+     * Creates temporary holders for a worker scanning part of a claim in parallel.
+     *
+     * @return key to identify worker holder
+     */
+    int createWorkerHolder() {
+        int workerId = workerIdCounter.decrementAndGet();
+        createHolder(workerId);
+        return workerId;
+    }
+
+    /**
+     * Merges the results of a worker into the holders of a task and cleans up the worker
+     * holders.
+     *
+     * @param workerId key to identify worker holder
+     * @param id key to identify task
+     */
+    void mergeWorkerHolder(int workerId, int id) {
+        blockConsumer.mergeHolder(workerId, id);
+        spawnerConsumer.mergeHolder(workerId, id);
+        containerConsumer.mergeHolder(workerId, id);
+        doCleanUp(workerId);
     }
 
     /**
@@ -182,22 +261,9 @@ public class LandProcessor {
      */
     public void processEntityClaim(int id, double maxX, double minX, double maxY, double minY,
             double maxZ, double minZ, World world) {
-
-        for (int i = (int) minX; i < maxX; i++) {
-            for (int j = (int) minZ; j < maxZ; j++) {
-                if (stopOperations) {
-                    return;
-                }
-                for (int k = (int) minY; k < maxY; k++) {
-                    Block block = world.getBlockAt(i, k, j);
-                    for (BiFunction<Integer, Block, Boolean> f : landOperations) {
-                        if (f.apply(id, block)) {
-                            break;
-                        }
-                    }
-                }
-            }
-        }
+        ArrayList<ChunkRegion> regions = getChunkRegions((int) minX, (int) Math.ceil(maxX),
+                (int) minY, (int) Math.ceil(maxY), (int) minZ, (int) Math.ceil(maxZ), world);
+        processRegions(id, regions);
     }
 
     /**
@@ -212,23 +278,497 @@ public class LandProcessor {
 
         int x = chunk.getX() << 4;
         int z = chunk.getZ() << 4;
-        int maxHeight = (int) main.getOptions().getMaxLandHeight();
-        int minHeight = (int) main.getOptions().getMinLandHeight();
-        for (int i = x; i < x + 16; ++i) {
-            for (int j = z; j < z + 16; ++j) {
+        int maxHeight = (int) main.getOptions().getMaxLandHeight(world);
+        int minHeight = (int) main.getOptions().getMinLandHeight(world);
+        ArrayList<ChunkRegion> regions = new ArrayList<>();
+        regions.add(new ChunkRegion(world, chunk.getX(), chunk.getZ(), x, x + 16, minHeight,
+                maxHeight, z, z + 16));
+        processRegions(id, regions);
+    }
+
+    /**
+     * Processes chunk regions of a claim. Regions with indexed counts are added to the task
+     * directly, so chunks shared by several entities are only scanned once, while the rest are
+     * queued for chunk snapshots or scanned from the live world.
+     *
+     * @param id key to identify task
+     * @param regions chunk regions to process
+     */
+    private void processRegions(int id, ArrayList<ChunkRegion> regions) {
+        if (main.getLandManager().getLandIndex().isEnabled()) {
+            regions.removeIf(region -> applyIndexedRegion(id, region));
+        }
+        if (main.getOptions().isUseChunkSnapshots()) {
+            for (ChunkRegion region : regions) {
                 if (stopOperations) {
                     return;
                 }
-                for (int k = minHeight; k < maxHeight; ++k) {
-                    Block block = world.getBlockAt(i, k, j);
-                    for (BiFunction<Integer, Block, Boolean> f : landOperations) {
-                        if (f.apply(id, block)) {
-                            break;
-                        }
+                queueRegion(id, region);
+            }
+            return;
+        }
+        for (ChunkRegion region : regions) {
+            if (stopOperations) {
+                return;
+            }
+            scanRegion(id, region, null);
+        }
+    }
+
+    /**
+     * Applies land operations to a scanned block until one of them consumes it.
+     *
+     * @param operations land operations bound to a task
+     * @param material material of block
+     * @param world world that the block is in
+     * @param x x coordinate of block
+     * @param y y coordinate of block
+     * @param z z coordinate of block
+     */
+    private static void applyLandOperations(LandOperation[] operations, Material material, World world,
+            int x, int y, int z) {
+        for (LandOperation f : operations) {
+            if (f.apply(material, world, x, y, z)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Splits a claim into the regions of each chunk it covers.
+     *
+     * @param minX min x coordinate (inclusive)
+     * @param maxX max x coordinate (exclusive)
+     * @param minY min y coordinate (inclusive)
+     * @param maxY max y coordinate (exclusive)
+     * @param minZ min z coordinate (inclusive)
+     * @param maxZ max z coordinate (exclusive)
+     * @param world world to search in
+     *
+     * @return list of chunk regions covered by the claim
+     */
+    private ArrayList<ChunkRegion> getChunkRegions(int minX, int maxX, int minY, int maxY,
+            int minZ, int maxZ, World world) {
+        ArrayList<ChunkRegion> regions = new ArrayList<>();
+        if (minX >= maxX || minZ >= maxZ) {
+            return regions;
+        }
+        for (int chunkX = minX >> 4; chunkX <= (maxX - 1) >> 4; chunkX++) {
+            for (int chunkZ = minZ >> 4; chunkZ <= (maxZ - 1) >> 4; chunkZ++) {
+                int chunkMinX = Math.max(minX, chunkX << 4);
+                int chunkMaxX = Math.min(maxX, (chunkX << 4) + 16);
+                int chunkMinZ = Math.max(minZ, chunkZ << 4);
+                int chunkMaxZ = Math.min(maxZ, (chunkZ << 4) + 16);
+                regions.add(new ChunkRegion(world, chunkX, chunkZ, chunkMinX, chunkMaxX,
+                        minY, maxY, chunkMinZ, chunkMaxZ));
+            }
+        }
+        return regions;
+    }
+
+    /**
+     * Queues a chunk region to be snapshotted and scans the queued regions once a full batch
+     * has been collected.
+     *
+     * @param id key to identify task
+     * @param region chunk region to queue
+     */
+    private void queueRegion(int id, ChunkRegion region) {
+        ArrayList<ChunkRegion> regions = pendingRegions.get(id);
+        if (regions == null) {
+            return;
+        }
+        regions.add(region);
+        if (regions.size() >= main.getOptions().getChunkSnapshotBatchSize()) {
+            flushPendingRegions(id);
+        }
+    }
+
+    /**
+     * Scans all queued chunk regions, snapshotting them on the main thread first if chunk
+     * snapshots are used. Called once more after an entity's claims are processed to scan the
+     * last batch.
+     *
+     * @param id key to identify task
+     */
+    public void flushPendingRegions(int id) {
+        ArrayList<ChunkRegion> regions = pendingRegions.get(id);
+        if (regions == null || regions.isEmpty()) {
+            return;
+        }
+        HashMap<World, HashMap<Long, ChunkSnapshot>> snapshots = null;
+        if (main.getOptions().isUseChunkSnapshots()) {
+            snapshots = takeChunkSnapshots(regions);
+        }
+        if (main.getOptions().isParallelClaimScanning()
+                && regions.size() > main.getOptions().getClaimSplitSize()) {
+            scanRegionsInParallel(id, regions, snapshots);
+        } else {
+            for (ChunkRegion region : regions) {
+                if (stopOperations) {
+                    break;
+                }
+                scanRegion(id, region, snapshots);
+            }
+        }
+        regions.clear();
+    }
+
+    /**
+     * Scans chunk regions across cpu cores. Regions are split into groups of at most the
+     * configured claim split size, each scanned into its own worker holders that are merged
+     * into the holders of the task once done. Blocks until every region has been scanned.
+     *
+     * @param id key to identify task
+     * @param regions chunk regions to scan
+     * @param snapshots chunk snapshots of the regions
+     */
+    private void scanRegionsInParallel(int id, ArrayList<ChunkRegion> regions,
+            HashMap<World, HashMap<Long, ChunkSnapshot>> snapshots) {
+        RegionScanTask scanTask = new RegionScanTask(this, id, regions, snapshots, 0,
+                regions.size(), main.getOptions().getClaimSplitSize());
+        try {
+            getClaimScanPool().invoke(scanTask);
+        } catch (RejectedExecutionException e) {
+            // pool is shut down when the plugin is reloaded or disabled
+        }
+    }
+
+    /**
+     * Gets the pool for scanning claims in parallel, creating it if needed.
+     *
+     * @return pool for scanning claims
+     */
+    private synchronized ForkJoinPool getClaimScanPool() {
+        if (claimScanPool == null) {
+            claimScanPool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        }
+        return claimScanPool;
+    }
+
+    /**
+     * Shuts down the pool for scanning claims, called when this processor is replaced or the
+     * plugin is disabled.
+     */
+    public synchronized void shutdown() {
+        if (claimScanPool != null) {
+            claimScanPool.shutdownNow();
+            claimScanPool = null;
+        }
+    }
+
+    /**
+     * Scans the blocks of a chunk region, from its chunk snapshot if available or otherwise
+     * from the live world. Fully claimed chunks are counted into the land index instead when
+     * it is enabled.
+     *
+     * @param id key to identify task or worker holder
+     * @param region chunk region to scan
+     * @param snapshots chunk snapshots to read from, or null to read from the live world
+     */
+    void scanRegion(int id, ChunkRegion region,
+            HashMap<World, HashMap<Long, ChunkSnapshot>> snapshots) {
+        ChunkSnapshot snapshot = null;
+        if (snapshots != null) {
+            HashMap<Long, ChunkSnapshot> worldSnapshots = snapshots.get(region.getWorld());
+            if (worldSnapshots == null) {
+                return;
+            }
+            snapshot = worldSnapshots.get(region.getChunkKey());
+            if (snapshot == null) {
+                return;
+            }
+        }
+        if (main.getLandManager().getLandIndex().isEnabled() && isFullChunk(region)) {
+            indexRegion(id, region, snapshot);
+            return;
+        }
+        LandOperation[] operations = taskOperations.get(id);
+        if (operations == null) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        long blocks;
+        if (snapshot == null) {
+            blocks = processLiveRegion(operations, region);
+        } else {
+            blocks = processChunkSnapshot(operations, region, snapshot);
+        }
+        recordScan(blocks, startTime);
+    }
+
+    /**
+     * Records the number of blocks scanned and the time taken to scan them.
+     *
+     * @param blocks number of blocks scanned
+     * @param startTime time in nanoseconds that the scan started at
+     */
+    private void recordScan(long blocks, long startTime) {
+        blocksScanned.add(blocks);
+        scanNanos.add(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Gets the number of blocks scanned since the scan stats were last reset.
+     *
+     * @return number of blocks scanned
+     */
+    public long getBlocksScanned() {
+        return blocksScanned.sum();
+    }
+
+    /**
+     * Gets the time spent scanning blocks since the scan stats were last reset, summed across
+     * all threads.
+     *
+     * @return time spent scanning in nanoseconds
+     */
+    public long getScanNanos() {
+        return scanNanos.sum();
+    }
+
+    /**
+     * Resets the number of blocks scanned and the time spent scanning them.
+     */
+    public void resetScanStats() {
+        blocksScanned.reset();
+        scanNanos.reset();
+    }
+
+    /**
+     * Scans the blocks of a chunk region from the live world. Each column is only scanned up to
+     * its highest block if the heightmap is used.
+     *
+     * @param operations land operations to apply to each block
+     * @param region chunk region to scan
+     *
+     * @return number of blocks scanned
+     */
+    private long processLiveRegion(LandOperation[] operations, ChunkRegion region) {
+        World world = region.getWorld();
+        long blocks = 0;
+        boolean useHeightmap = main.getOptions().isUseHeightmap();
+        for (int i = region.getMinX(); i < region.getMaxX(); i++) {
+            for (int j = region.getMinZ(); j < region.getMaxZ(); j++) {
+                if (stopOperations) {
+                    return blocks;
+                }
+                int maxY = region.getMaxY();
+                if (useHeightmap) {
+                    // older versions return the air block above the highest block instead
+                    maxY = Math.min(maxY, world.getHighestBlockYAt(i, j) + 2);
+                }
+                blocks += Math.max(0, maxY - region.getMinY());
+                for (int k = region.getMinY(); k < maxY; k++) {
+                    Material material = world.getBlockAt(i, k, j).getType();
+                    applyLandOperations(operations, material, world, i, k, j);
+                }
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * Takes a snapshot of every distinct chunk in the given regions. Snapshots are taken on
+     * the main thread, blocking the calling thread until they are ready.
+     *
+     * @param regions chunk regions to take snapshots for
+     *
+     * @return map of world to chunk key to chunk snapshot
+     */
+    private HashMap<World, HashMap<Long, ChunkSnapshot>> takeChunkSnapshots(
+            ArrayList<ChunkRegion> regions) {
+        boolean useHeightmap = main.getOptions().isUseHeightmap();
+        Callable<HashMap<World, HashMap<Long, ChunkSnapshot>>> snapshotTask = () -> {
+            HashMap<World, HashMap<Long, ChunkSnapshot>> snapshots = new HashMap<>();
+            for (ChunkRegion region : regions) {
+                HashMap<Long, ChunkSnapshot> worldSnapshots = snapshots.computeIfAbsent(
+                        region.getWorld(), k -> new HashMap<>());
+                if (!worldSnapshots.containsKey(region.getChunkKey())) {
+                    Chunk chunk = region.getWorld().getChunkAt(region.getChunkX(),
+                            region.getChunkZ());
+                    worldSnapshots.put(region.getChunkKey(),
+                            chunk.getChunkSnapshot(useHeightmap, false, false));
+                }
+            }
+            return snapshots;
+        };
+
+        try {
+            if (Bukkit.isPrimaryThread()) {
+                return snapshotTask.call();
+            }
+            return Bukkit.getScheduler().callSyncMethod(main, snapshotTask).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (CancellationException | ExecutionException e) {
+            // scheduler cancels pending tasks when the plugin is disabled
+        } catch (Exception e) {
+            LogManager.warn(e.getMessage());
+        }
+        return new HashMap<>();
+    }
+
+    /**
+     * Scans the blocks of a chunk region using its chunk snapshot.
+     *
+     * @param operations land operations to apply to each block
+     * @param region chunk region to scan
+     * @param snapshot snapshot of the chunk that the region is in
+     *
+     * @return number of blocks scanned
+     */
+    private long processChunkSnapshot(LandOperation[] operations, ChunkRegion region,
+            ChunkSnapshot snapshot) {
+        return scanChunkSnapshot(operations, region, snapshot,
+                main.getOptions().isUseHeightmap(), this::getStopOperations);
+    }
+
+    /**
+     * Scans the blocks of a chunk region using its chunk snapshot. Sections of the chunk that
+     * only contain air are skipped, as are blocks above the highest block of each column if the
+     * heightmap is used. Kept free of plugin state so that it can be benchmarked on its own.
+     *
+     * @param operations land operations to apply to each block
+     * @param region chunk region to scan
+     * @param snapshot snapshot of the chunk that the region is in
+     * @param useHeightmap whether to stop each column at its highest block
+     * @param stopped checked before each column, scanning stops once it returns true
+     *
+     * @return number of blocks scanned
+     */
+    static long scanChunkSnapshot(LandOperation[] operations, ChunkRegion region,
+            ChunkSnapshot snapshot, boolean useHeightmap, BooleanSupplier stopped) {
+        World world = region.getWorld();
+        int minY = Math.max(region.getMinY(), WorldUtils.getMinHeight(world));
+        int maxY = Math.min(region.getMaxY(), world.getMaxHeight());
+        int[] ranges = WorldUtils.getNonEmptyRanges(snapshot, world, minY, maxY);
+        long blocks = 0;
+        if (ranges.length == 0) {
+            return blocks;
+        }
+        for (int i = region.getMinX(); i < region.getMaxX(); i++) {
+            for (int j = region.getMinZ(); j < region.getMaxZ(); j++) {
+                if (stopped.getAsBoolean()) {
+                    return blocks;
+                }
+                int columnMaxY = maxY;
+                if (useHeightmap) {
+                    columnMaxY = Math.min(maxY, snapshot.getHighestBlockYAt(i & 15, j & 15) + 2);
+                }
+                for (int r = 0; r < ranges.length && ranges[r] < columnMaxY; r += 2) {
+                    int rangeMaxY = Math.min(ranges[r + 1], columnMaxY);
+                    blocks += rangeMaxY - ranges[r];
+                    for (int k = ranges[r]; k < rangeMaxY; k++) {
+                        Material material = snapshot.getBlockType(i & 15, k, j & 15);
+                        applyLandOperations(operations, material, world, i, k, j);
                     }
                 }
             }
         }
+        return blocks;
+    }
+
+    /**
+     * Checks if a chunk region covers its whole chunk, which is required for its counts to be
+     * indexed.
+     *
+     * @param region chunk region to check
+     *
+     * @return true if region covers the whole chunk, false otherwise
+     */
+    private boolean isFullChunk(ChunkRegion region) {
+        return region.getMaxX() - region.getMinX() == 16
+                && region.getMaxZ() - region.getMinZ() == 16;
+    }
+
+    /**
+     * Adds the indexed counts of a chunk region to a task if the chunk has been indexed.
+     *
+     * @param id key to identify task
+     * @param region chunk region to add counts for
+     *
+     * @return true if indexed counts were added, false if the region has to be scanned
+     */
+    private boolean applyIndexedRegion(int id, ChunkRegion region) {
+        if (!isFullChunk(region)) {
+            return false;
+        }
+        ChunkCounts counts = main.getLandManager().getLandIndex().getChunk(region.getWorld(),
+                region.getChunkKey(), region.getMinY(), region.getMaxY());
+        if (counts == null) {
+            return false;
+        }
+        applyChunkCounts(id, region, counts);
+        return true;
+    }
+
+    /**
+     * Counts every block of a chunk region into the land index and adds the counts to a task.
+     *
+     * @param id key to identify task or worker holder
+     * @param region chunk region to scan
+     * @param snapshot snapshot of the chunk, or null to read from the live world
+     */
+    private void indexRegion(int id, ChunkRegion region, ChunkSnapshot snapshot) {
+        int[] materialCounts = new int[MATERIAL_COUNT];
+        HashMap<Integer, Material> positions = new HashMap<>();
+        LandOperation[] collector = new LandOperation[] {(material, world, x, y, z) -> {
+            materialCounts[material.ordinal()]++;
+            if (LandIndex.isPositional(material)) {
+                positions.put(ChunkCounts.pack(x, y, z), material);
+            }
+            return true;
+        }};
+        long scanTime = System.currentTimeMillis();
+        long startTime = System.nanoTime();
+        long blocks;
+        if (snapshot == null) {
+            blocks = processLiveRegion(collector, region);
+        } else {
+            blocks = processChunkSnapshot(collector, region, snapshot);
+        }
+        recordScan(blocks, startTime);
+        if (stopOperations) {
+            // partially scanned chunks are not indexed
+            return;
+        }
+        ChunkCounts counts = new ChunkCounts(region.getMinY(), region.getMaxY(), scanTime,
+                materialCounts, positions);
+        main.getLandManager().getLandIndex().putChunk(region.getWorld(), region.getChunkKey(),
+                counts);
+        applyChunkCounts(id, region, counts);
+    }
+
+    /**
+     * Adds the counts of an indexed chunk to the holders of a task. Spawners and containers
+     * are passed through the land operations so they are processed as if they were scanned.
+     *
+     * @param id key to identify task or worker holder
+     * @param region chunk region that the counts are for
+     * @param counts indexed counts of the chunk
+     */
+    private void applyChunkCounts(int id, ChunkRegion region, ChunkCounts counts) {
+        LandOperation[] operations = taskOperations.get(id);
+        BlockHolder blockHolder = blockConsumer.getBlockHolder(id);
+        if (operations == null || blockHolder == null) {
+            return;
+        }
+        counts.forEachCount((material, count) -> {
+            if (!LandIndex.isPositional(material) && blockWorthTable.contains(material)) {
+                blockHolder.addToHolder(material, count);
+            }
+        });
+
+        World world = region.getWorld();
+        int chunkX = region.getChunkX() << 4;
+        int chunkZ = region.getChunkZ() << 4;
+        for (Map.Entry<Integer, Material> entry : counts.getPositions().entrySet()) {
+            int position = entry.getKey();
+            applyLandOperations(operations, entry.getValue(), world,
+                    chunkX + ChunkCounts.getX(position), ChunkCounts.getY(position),
+                    chunkZ + ChunkCounts.getZ(position));
+        }
     }
 
     /**
@@ -338,16 +878,32 @@ public class LandProcessor {
 
 
     /**
-     * Processes spawner types on the main thread for stats.
+     * Processes the worth of spawners until done or the deadline has passed.
      *
      * @param id key to identify task
+     * @param deadline time in nanoseconds to stop processing at
+     *
+     * @return true if all spawners have been processed, false otherwise
+     */
+    public boolean processSpawnerTypes(int id, long deadline) {
+        return spawnerConsumer.processSpawnerTypes(id, deadline);
+    }
+
+    /**
+     * Copies the contents of containers on the main thread until done or the deadline has
+     * passed.
+     *
+     * @param id key to identify task
+     * @param deadline time in nanoseconds to stop copying at
+     *
+     * @return true if all containers have been copied, false otherwise
      */
-    public void processSpawnerTypes(int id) {
-        spawnerConsumer.processSpawnerTypes(id);
+    public boolean captureContainerItems(int id, long deadline) {
+        return containerConsumer.captureContainerItems(id, deadline);
     }
 
     /**
-     * Processes container items on the main thread for stats.
+     * Processes the worth of copied container items, safe to call asynchronously.
      *
      * @param id key to identify task
      */
@@ -0,0 +1,74 @@
+package tk.taverncraft.survivaltop.land.processor;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.World;
+
+import tk.taverncraft.survivaltop.utils.types.ChunkRegion;
+
+/**
+ * Fork/join task for scanning chunk regions of a claim in parallel. Regions are halved until
+ * each group is small enough, then every group is scanned into its own worker holders so
+ * workers never share state until their results are merged.
+ */
+public class RegionScanTask extends RecursiveAction {
+    private final LandProcessor landProcessor;
+    private final int id;
+    private final List<ChunkRegion> regions;
+    private final HashMap<World, HashMap<Long, ChunkSnapshot>> snapshots;
+    private final int start;
+    private final int end;
+    private final int splitSize;
+
+    /**
+     * Constructor for RegionScanTask.
+     *
+     * @param landProcessor helper for land operations
+     * @param id key to identify task that results are merged into
+     * @param regions chunk regions to scan
+     * @param snapshots chunk snapshots of the regions
+     * @param start index of first region to scan (inclusive)
+     * @param end index of last region to scan (exclusive)
+     * @param splitSize maximum number of regions scanned by a single worker
+     */
+    public RegionScanTask(LandProcessor landProcessor, int id, List<ChunkRegion> regions,
+            HashMap<World, HashMap<Long, ChunkSnapshot>> snapshots, int start, int end,
+            int splitSize) {
+        this.landProcessor = landProcessor;
+        this.id = id;
+        this.regions = regions;
+        this.snapshots = snapshots;
+        this.start = start;
+        this.end = end;
+        this.splitSize = splitSize;
+    }
+
+    @Override
+    protected void compute() {
+        if (landProcessor.getStopOperations()) {
+            return;
+        }
+        if (end - start > splitSize) {
+            int middle = (start + end) >>> 1;
+            invokeAll(new RegionScanTask(landProcessor, id, regions, snapshots, start, middle,
+                    splitSize), new RegionScanTask(landProcessor, id, regions, snapshots, middle,
+                    end, splitSize));
+            return;
+        }
+
+        int workerId = landProcessor.createWorkerHolder();
+        try {
+            for (int i = start; i < end; i++) {
+                if (landProcessor.getStopOperations()) {
+                    return;
+                }
+                landProcessor.scanRegion(workerId, regions.get(i), snapshots);
+            }
+        } finally {
+            landProcessor.mergeWorkerHolder(workerId, id);
+        }
+    }
+}
@@ -1,23 +1,16 @@
 package tk.taverncraft.survivaltop.land.processor.consumers;
 
-import java.util.HashMap;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.BiFunction;
-
-import org.bukkit.block.Block;
 
+import tk.taverncraft.survivaltop.land.processor.LandOperation;
 import tk.taverncraft.survivaltop.land.processor.holders.BlockHolder;
-import tk.taverncraft.survivaltop.utils.types.MutableInt;
+import tk.taverncraft.survivaltop.utils.types.MaterialWorthTable;
 
 /**
  * Handles the logic for performing block operations when scanning locations.
  */
 public class BlockConsumer {
-    private final LinkedHashMap<String, Double> blockWorth;
-    private Set<String> blockMaterial;
+    private final MaterialWorthTable blockWorth;
 
     // holders containing count of each material mapped to uuid
     private final ConcurrentHashMap<Integer, BlockHolder> blockHolderMap = new ConcurrentHashMap<>();
@@ -25,20 +18,30 @@ public class BlockConsumer {
     /**
      * Constructor for BlockConsumer.
      *
-     * @param blockWorth map of block materials to their values
+     * @param blockWorth worth table of block materials
      */
-    public BlockConsumer(LinkedHashMap<String, Double> blockWorth) {
+    public BlockConsumer(MaterialWorthTable blockWorth) {
         this.blockWorth = blockWorth;
-        this.blockMaterial = blockWorth.keySet();
     }
 
     /**
-     * Returns block operation for stats.
+     * Returns block operation for stats, bound to the holder of the given task.
+     *
+     * @param id key to identify task
      *
      * @return block operation for stats
      */
-    public BiFunction<Integer, Block, Boolean> getOperation() {
-        return processBlock;
+    public LandOperation getOperation(int id) {
+        BlockHolder blockHolder = blockHolderMap.get(id);
+
+        // processes blocks immediately (and asynchronously) for stats
+        return (material, world, x, y, z) -> {
+            if (blockWorth.contains(material)) {
+                blockHolder.addToHolder(material);
+                return true;
+            }
+            return false;
+        };
     }
 
     /**
@@ -47,7 +50,7 @@ public class BlockConsumer {
      * @param id key to identify task
      */
     public void createHolder(int id) {
-        blockHolderMap.put(id, new BlockHolder(blockMaterial));
+        blockHolderMap.put(id, new BlockHolder(blockWorth));
     }
 
     /**
@@ -61,6 +64,24 @@ public class BlockConsumer {
         return blockHolderMap.get(id);
     }
 
+    /**
+     * Merges the block counts of a worker holder into the holder of a task. Workers may merge
+     * into the same task concurrently so the target holder is locked while merging.
+     *
+     * @param workerId key to identify worker holder
+     * @param id key to identify task
+     */
+    public void mergeHolder(int workerId, int id) {
+        BlockHolder workerHolder = blockHolderMap.get(workerId);
+        BlockHolder blockHolder = blockHolderMap.get(id);
+        if (workerHolder == null || blockHolder == null) {
+            return;
+        }
+        synchronized (blockHolder) {
+            blockHolder.merge(workerHolder);
+        }
+    }
+
     /**
      * Cleans up holders after stats update.
      *
@@ -89,27 +110,9 @@ public class BlockConsumer {
      * @return double value representing total worth of blocks
      */
     public double getAllBlocksWorth(BlockHolder blockHolder) {
-        double totalBlockWorth = 0;
         if (blockHolder == null) {
             return 0;
         }
-        HashMap<String, MutableInt> counter = blockHolder.getCounter();
-        for (Map.Entry<String, MutableInt> map : counter.entrySet()) {
-            // count multiply by worth, then added to total
-            totalBlockWorth += map.getValue().get() * blockWorth.get(map.getKey());
-        }
-        return totalBlockWorth;
+        return blockHolder.getTotalWorth();
     }
-
-    /**
-     * Processes blocks immediately (and asynchronously) for stats.
-     */
-    private final BiFunction<Integer, Block, Boolean> processBlock = (id, block) -> {
-        String material = block.getType().name();
-        if (blockMaterial.contains(material)) {
-            blockHolderMap.get(id).addToHolder(material);
-            return true;
-        }
-        return false;
-    };
 }
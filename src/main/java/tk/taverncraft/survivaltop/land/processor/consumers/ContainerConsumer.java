@@ -2,14 +2,9 @@ package tk.taverncraft.survivaltop.land.processor.consumers;
 
 import java.util.ArrayList;
 import java.util.EnumSet;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.BiFunction;
 
 import org.bukkit.Material;
 import org.bukkit.block.Block;
@@ -20,9 +15,12 @@ import org.bukkit.inventory.InventoryHolder;
 import org.bukkit.inventory.ItemStack;
 
 import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.land.processor.LandOperation;
 import tk.taverncraft.survivaltop.land.processor.LandProcessor;
 import tk.taverncraft.survivaltop.land.processor.holders.ContainerHolder;
-import tk.taverncraft.survivaltop.utils.types.MutableInt;
+import tk.taverncraft.survivaltop.utils.ItemUtils;
+import tk.taverncraft.survivaltop.utils.types.MaterialAmounts;
+import tk.taverncraft.survivaltop.utils.types.MaterialWorthTable;
 
 /**
  * Handles the logic for performing container operations when scanning locations.
@@ -30,8 +28,7 @@ import tk.taverncraft.survivaltop.utils.types.MutableInt;
 public class ContainerConsumer {
     private final Main main;
     private final LandProcessor landProcessor;
-    private final LinkedHashMap<String, Double> containerWorth;
-    private final Set<String> containerMaterial;
+    private final MaterialWorthTable containerWorth;
 
     // holders containing count of each material mapped to uuid
     private final ConcurrentHashMap<Integer, ContainerHolder> containerHolderMap =
@@ -41,8 +38,20 @@ public class ContainerConsumer {
     private final ConcurrentHashMap<Integer, ArrayList<Block>> preprocessedContainers =
             new ConcurrentHashMap<>();
 
+    // container contents copied on main thread and valued on async thread later
+    private final ConcurrentHashMap<Integer, MaterialAmounts> capturedContents =
+            new ConcurrentHashMap<>();
+
+    // copies of shulker boxes and bundles found in containers, looked into on async thread later
+    private final ConcurrentHashMap<Integer, ArrayList<ItemStack>> capturedNestedItems =
+            new ConcurrentHashMap<>();
+
+    // index of next preprocessed container to copy, mapped to task id
+    private final ConcurrentHashMap<Integer, Integer> containerProgress =
+            new ConcurrentHashMap<>();
+
     // todo: is there a better way?
-    private final Set<Material> allowedTypes = EnumSet.of(
+    private static final Set<Material> allowedTypes = EnumSet.of(
         Material.CHEST,
         Material.DROPPER,
         Material.HOPPER,
@@ -68,25 +77,35 @@ public class ContainerConsumer {
         Material.BLACK_SHULKER_BOX
     );
 
-    private Set<String> containerTypes;
+    private final Set<Material> containerTypes;
 
     /**
      * Constructor for ContainerConsumer.
      *
      * @param main plugin class
      * @param landProcessor helper for land operations
-     * @param containerWorth map of container item names to their values
+     * @param containerWorth worth table of container item materials
      */
     public ContainerConsumer(Main main, LandProcessor landProcessor,
-                             LinkedHashMap<String, Double> containerWorth) {
+                             MaterialWorthTable containerWorth) {
         this.main = main;
         this.landProcessor = landProcessor;
         this.containerWorth = containerWorth;
-        this.containerTypes = new HashSet<>();
-        this.containerMaterial = containerWorth.keySet();
+        this.containerTypes = EnumSet.noneOf(Material.class);
         setUpContainerType();
     }
 
+    /**
+     * Checks if a material is a container type that can be included.
+     *
+     * @param material material to check
+     *
+     * @return true if material is an allowed container type, false otherwise
+     */
+    public static boolean isAllowedType(Material material) {
+        return allowedTypes.contains(material);
+    }
+
     /**
      * Sets up the containers chosen to be included.
      */
@@ -95,18 +114,29 @@ public class ContainerConsumer {
         for (String container : chosenContainers) {
             Material material = Material.valueOf(container);
             if (allowedTypes.contains(material)) {
-                containerTypes.add(material.name());
+                containerTypes.add(material);
             }
         }
     }
 
     /**
-     * Returns container operation for stats.
+     * Returns container operation for stats, bound to the preprocessed containers of the given
+     * task. The live block is only fetched for containers since they have to be processed on
+     * the main thread later.
+     *
+     * @param id key to identify task
      *
      * @return container operation for stats
      */
-    public BiFunction<Integer, Block, Boolean> getOperation() {
-        return preprocessContainer;
+    public LandOperation getOperation(int id) {
+        ArrayList<Block> containers = preprocessedContainers.get(id);
+        return (material, world, x, y, z) -> {
+            if (containerTypes.contains(material)) {
+                containers.add(world.getBlockAt(x, y, z));
+                return true;
+            }
+            return false;
+        };
     }
 
     /**
@@ -115,10 +145,12 @@ public class ContainerConsumer {
      * @param id key to identify task
      */
     public void createHolder(int id) {
-        containerHolderMap.put(id, new ContainerHolder(containerMaterial));
+        containerHolderMap.put(id, new ContainerHolder(containerWorth));
 
         // temp array list also needed for tracking containers
         preprocessedContainers.put(id, new ArrayList<>());
+        capturedContents.put(id, new MaterialAmounts());
+        capturedNestedItems.put(id, new ArrayList<>());
     }
 
     /**
@@ -132,6 +164,24 @@ public class ContainerConsumer {
         return containerHolderMap.get(id);
     }
 
+    /**
+     * Merges the preprocessed containers of a worker into those of a task. Workers may merge
+     * into the same task concurrently so the target list is locked while merging.
+     *
+     * @param workerId key to identify worker holder
+     * @param id key to identify task
+     */
+    public void mergeHolder(int workerId, int id) {
+        ArrayList<Block> workerContainers = preprocessedContainers.get(workerId);
+        ArrayList<Block> containers = preprocessedContainers.get(id);
+        if (workerContainers == null || containers == null) {
+            return;
+        }
+        synchronized (containers) {
+            containers.addAll(workerContainers);
+        }
+    }
+
     /**
      * Cleans up holders and preprocessed containers after stats update.
      *
@@ -140,6 +190,9 @@ public class ContainerConsumer {
     public void doCleanUp(int id) {
         containerHolderMap.remove(id);
         preprocessedContainers.remove(id);
+        containerProgress.remove(id);
+        capturedContents.remove(id);
+        capturedNestedItems.remove(id);
     }
 
     /**
@@ -161,38 +214,94 @@ public class ContainerConsumer {
      * @return double value representing total worth of containers
      */
     public double getAllContainersWorth(ContainerHolder containerHolder) {
-        double totalContainerWorth = 0;
         if (containerHolder == null) {
             return 0;
         }
-        HashMap<String, MutableInt> counter = containerHolder.getCounter();
-        for (Map.Entry<String, MutableInt> map : counter.entrySet()) {
-            // count multiply by worth, then added to total
-            totalContainerWorth += map.getValue().get() * containerWorth.get(map.getKey());
-        }
-        return totalContainerWorth;
+        return containerHolder.getTotalWorth();
     }
 
     /**
-     * Processes the worth of container items.
+     * Copies the contents of containers on the main thread until done or the deadline has
+     * passed, resuming from where the previous call stopped. At least one container is copied
+     * per call. Contents are valued later by {@link #processContainerItems(int)}.
      *
      * @param id key to identify task
+     * @param deadline time in nanoseconds to stop copying at
+     *
+     * @return true if all containers have been copied, false otherwise
      */
-    public void processContainerItems(int id) {
+    public boolean captureContainerItems(int id, long deadline) {
         ArrayList<Block> blocks = preprocessedContainers.get(id);
+        MaterialAmounts contents = capturedContents.get(id);
+        ArrayList<ItemStack> nestedItems = capturedNestedItems.get(id);
+        if (blocks == null || contents == null || nestedItems == null) {
+            return true;
+        }
+        boolean includeNestedItems = main.getOptions().isIncludeNestedItems();
         int numBlocks = blocks.size();
-        for (int i = 0; i < numBlocks; i++) {
+        int i = containerProgress.getOrDefault(id, 0);
+        while (i < numBlocks) {
             if (landProcessor.getStopOperations()) {
-                return;
+                return true;
             }
             Inventory inventory = getBlockInventory(blocks.get(i));
-            for (ItemStack itemStack : inventory) {
-                if (itemStack == null) {
-                    continue;
+
+            // inventory is null if the container was broken or replaced since it was scanned
+            if (inventory != null) {
+                for (ItemStack itemStack : inventory) {
+                    if (itemStack == null) {
+                        continue;
+                    }
+                    contents.add(itemStack.getType(), itemStack.getAmount());
+                    if (includeNestedItems && ItemUtils.mayHaveContents(itemStack)) {
+                        nestedItems.add(itemStack.clone());
+                    }
                 }
-                String material = itemStack.getType().name();
-                if (containerMaterial.contains(material)) {
-                    containerHolderMap.get(id).addToHolder(material, itemStack.getAmount());
+            }
+            i++;
+
+            // progress is saved after every container so a retry never copies one twice
+            containerProgress.put(id, i);
+            if (i < numBlocks && System.nanoTime() - deadline > 0) {
+                return false;
+            }
+        }
+        containerProgress.remove(id);
+        return true;
+    }
+
+    /**
+     * Processes the worth of container items copied by
+     * {@link #captureContainerItems(int, long)}. Safe to call asynchronously.
+     *
+     * @param id key to identify task
+     */
+    public void processContainerItems(int id) {
+        MaterialAmounts contents = capturedContents.get(id);
+        ContainerHolder containerHolder = containerHolderMap.get(id);
+        if (contents == null || containerHolder == null) {
+            return;
+        }
+        int numItems = contents.size();
+        for (int i = 0; i < numItems; i++) {
+            Material material = contents.getMaterial(i);
+            if (containerWorth.contains(material)) {
+                containerHolder.addToHolder(material, contents.getAmount(i));
+            }
+        }
+        capturedContents.put(id, new MaterialAmounts());
+
+        ArrayList<ItemStack> nestedItems = capturedNestedItems.put(id, new ArrayList<>());
+        if (nestedItems == null) {
+            return;
+        }
+        for (ItemStack itemStack : nestedItems) {
+            MaterialAmounts nestedContents = ItemUtils.getContents(itemStack);
+            for (int i = 0; i < nestedContents.size(); i++) {
+                Material material = nestedContents.getMaterial(i);
+                if (containerWorth.contains(material)) {
+                    containerHolder.addToHolder(material,
+                            nestedContents.getAmount(i) * itemStack.getAmount());
                 }
             }
         }
@@ -203,7 +312,7 @@ public class ContainerConsumer {
      *
      * @param block block to get inventory for
      *
-     * @return inventory of given block
+     * @return inventory of given block, or null if the block is no longer a container
      */
     private Inventory getBlockInventory(Block block) {
         BlockState blockstate = block.getState();
@@ -211,24 +320,12 @@ public class ContainerConsumer {
         if (blockstate instanceof Chest) {
             Chest chest = (Chest) blockstate;
             inventory = chest.getBlockInventory();
-        } else {
+        } else if (blockstate instanceof InventoryHolder) {
             InventoryHolder inventoryHolder = (InventoryHolder) blockstate;
             inventory = inventoryHolder.getInventory();
+        } else {
+            inventory = null;
         }
         return inventory;
     }
-
-    /**
-     * Preprocesses containers to be handled on main thread later for when the stats command is
-     * executed. Uuid here belongs to the sender and comes with the block that is being checked.
-     * This always returns 0 since if a block is not a container (ignored) and if it is
-     * a container, then it is set to be processed later anyways
-     */
-    private final BiFunction<Integer, Block, Boolean> preprocessContainer = (id, block) -> {
-        if (containerTypes.contains(block.getType().name())) {
-            preprocessedContainers.get(id).add(block);
-            return true;
-        }
-        return false;
-    };
 }
@@ -6,7 +6,6 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.BiFunction;
 
 import org.bukkit.Material;
 import org.bukkit.block.Block;
@@ -15,6 +14,7 @@ import org.bukkit.block.CreatureSpawner;
 import dev.rosewood.rosestacker.api.RoseStackerAPI;
 
 import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.land.processor.LandOperation;
 import tk.taverncraft.survivaltop.land.processor.LandProcessor;
 import tk.taverncraft.survivaltop.land.processor.holders.SpawnerHolder;
 import tk.taverncraft.survivaltop.utils.types.MutableInt;
@@ -37,6 +37,9 @@ public class SpawnerConsumer {
     private final ConcurrentHashMap<Integer, ArrayList<Block>> preprocessedSpawners =
             new ConcurrentHashMap<>();
 
+    // index of next preprocessed spawner to process, mapped to task id
+    private final ConcurrentHashMap<Integer, Integer> spawnerProgress = new ConcurrentHashMap<>();
+
     /**
      * Constructor for SpawnerConsumer.
      *
@@ -56,15 +59,32 @@ public class SpawnerConsumer {
     }
 
     /**
-     * Returns spawner operation for stats.
+     * Returns spawner operation for stats, bound to the preprocessed spawners of the given
+     * task. The live block is only fetched for spawners since they have to be processed on
+     * the main thread later.
+     *
+     * @param id key to identify task
      *
      * @return spawner operation for stats
      */
-    public BiFunction<Integer, Block, Boolean> getOperation() {
+    public LandOperation getOperation(int id) {
+        ArrayList<Block> spawners = preprocessedSpawners.get(id);
         if (main.getDependencyManager().hasDependencyLoaded("RoseStacker")) {
-            return preprocessRoseStackers;
+            return (material, world, x, y, z) -> {
+                if (material != Material.SPAWNER) {
+                    return false;
+                }
+                preprocessRoseStackers(spawners, world.getBlockAt(x, y, z));
+                return true;
+            };
         }
-        return preprocessSpawner;
+        return (material, world, x, y, z) -> {
+            if (material != Material.SPAWNER) {
+                return false;
+            }
+            spawners.add(world.getBlockAt(x, y, z));
+            return true;
+        };
     }
 
     /**
@@ -90,6 +110,24 @@ public class SpawnerConsumer {
         return spawnerHolderMap.get(id);
     }
 
+    /**
+     * Merges the preprocessed spawners of a worker into those of a task. Workers may merge
+     * into the same task concurrently so the target list is locked while merging.
+     *
+     * @param workerId key to identify worker holder
+     * @param id key to identify task
+     */
+    public void mergeHolder(int workerId, int id) {
+        ArrayList<Block> workerSpawners = preprocessedSpawners.get(workerId);
+        ArrayList<Block> spawners = preprocessedSpawners.get(id);
+        if (workerSpawners == null || spawners == null) {
+            return;
+        }
+        synchronized (spawners) {
+            spawners.addAll(workerSpawners);
+        }
+    }
+
     /**
      * Cleans up holders and preprocessed spawners after stats update.
      *
@@ -98,6 +136,7 @@ public class SpawnerConsumer {
     public void doCleanUp(int id) {
         spawnerHolderMap.remove(id);
         preprocessedSpawners.remove(id);
+        spawnerProgress.remove(id);
     }
 
     /**
@@ -132,61 +171,61 @@ public class SpawnerConsumer {
     }
 
     /**
-     * Processes the worth of spawners.
+     * Processes the worth of spawners until done or the deadline has passed, resuming from
+     * where the previous call stopped. At least one spawner is processed per call.
      *
      * @param id key to identify task
+     * @param deadline time in nanoseconds to stop processing at
+     *
+     * @return true if all spawners have been processed, false otherwise
      */
-    public void processSpawnerTypes(int id) {
+    public boolean processSpawnerTypes(int id, long deadline) {
         ArrayList<Block> blocks = preprocessedSpawners.get(id);
+        SpawnerHolder spawnerHolder = spawnerHolderMap.get(id);
+        if (blocks == null || spawnerHolder == null) {
+            return true;
+        }
         int numBlocks = blocks.size();
-        for (int i = 0; i < numBlocks; i++) {
+        int i = spawnerProgress.getOrDefault(id, 0);
+        while (i < numBlocks) {
             if (landProcessor.getStopOperations()) {
-                return;
+                return true;
             }
             Block block = blocks.get(i);
             try {
                 CreatureSpawner spawner = (CreatureSpawner) block.getState();
                 String mobType = spawner.getSpawnedType().name();
                 if (spawnerEntityType.contains(mobType)) {
-                    spawnerHolderMap.get(id).addToHolder(mobType);
+                    spawnerHolder.addToHolder(mobType);
                 }
             } catch (ClassCastException e) {
                 // error thrown if player breaks spawner just as calculation is taking place
             }
+            i++;
+            if (i < numBlocks && System.nanoTime() - deadline > 0) {
+                spawnerProgress.put(id, i);
+                return false;
+            }
         }
+        spawnerProgress.remove(id);
+        return true;
     }
 
     /**
-     * Preprocesses spawners to be handled on main thread later for when the stats command is
-     * executed. Uuid here belongs to the sender and comes with the block that is being checked.
-     * This always returns 0 since if a block is not a spawner (ignored) and if it is
-     * a spawner, then it is set to be processed later anyways
-     */
-    private final BiFunction<Integer, Block, Boolean> preprocessSpawner = (id, block) -> {
-        Material material = block.getType();
-        if (material.equals(Material.SPAWNER)) {
-            preprocessedSpawners.get(id).add(block);
-            return true;
-        }
-        return false;
-    };
-
-    /**
-     * Variation of preprocessSpawner for RoseStacker support.
+     * Variation of spawner preprocessing for RoseStacker support, where stacked spawners are
+     * added once for every spawner in the stack.
+     *
+     * @param spawners list of preprocessed spawners to add to
+     * @param block spawner block
      */
-    private final BiFunction<Integer, Block, Boolean> preprocessRoseStackers = (id, block) -> {
-        Material material = block.getType();
-        if (material.equals(Material.SPAWNER)) {
-            if (rApi.isSpawnerStacked(block)) {
-                int stackSize = rApi.getStackedSpawner(block).getStackSize();
-                for (int i = 0; i < stackSize; i++) {
-                    preprocessedSpawners.get(id).add(block);
-                }
-            } else {
-                preprocessedSpawners.get(id).add(block);
+    private void preprocessRoseStackers(ArrayList<Block> spawners, Block block) {
+        if (rApi.isSpawnerStacked(block)) {
+            int stackSize = rApi.getStackedSpawner(block).getStackSize();
+            for (int i = 0; i < stackSize; i++) {
+                spawners.add(block);
             }
-            return true;
+        } else {
+            spawners.add(block);
         }
-        return false;
-    };
+    }
 }
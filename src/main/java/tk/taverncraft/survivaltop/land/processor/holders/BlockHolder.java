@@ -1,43 +1,73 @@
 package tk.taverncraft.survivaltop.land.processor.holders;
 
 import java.util.HashMap;
-import java.util.Set;
 
+import org.bukkit.Material;
+
+import tk.taverncraft.survivaltop.utils.types.MaterialCounter;
+import tk.taverncraft.survivaltop.utils.types.MaterialWorthTable;
 import tk.taverncraft.survivaltop.utils.types.MutableInt;
 
 /**
- * Holder for tracking count of blocks.
+ * Holder for tracking count of blocks. Holders are not thread safe, so a task scanned across
+ * several threads gives each worker its own holder and merges them into the task holder once
+ * the worker is done.
  */
 public class BlockHolder {
-    private final HashMap<String, MutableInt> counter;
+    private final MaterialCounter counter;
 
     /**
      * Constructor for BlockHolder.
      *
-     * @param materials list of block materials
+     * @param worthTable worth table of block materials
      */
-    public BlockHolder(Set<String> materials) {
-        counter = new HashMap<>();
-        for (String material : materials) {
-            counter.put(material, new MutableInt());
-        }
+    public BlockHolder(MaterialWorthTable worthTable) {
+        counter = new MaterialCounter(worthTable);
     }
 
     /**
-     * Gets the tracking counter.
+     * Gets the tracking counter as a map of material names, used for GUI and storage.
      *
      * @return counter map
      */
     public HashMap<String, MutableInt> getCounter() {
-        return this.counter;
+        return this.counter.toCounterMap();
+    }
+
+    /**
+     * Gets the total worth of all tracked blocks.
+     *
+     * @return total worth
+     */
+    public double getTotalWorth() {
+        return this.counter.getTotalWorth();
     }
 
     /**
      * Adds 1 count to holder.
      *
-     * @param material material to addTask count for
+     * @param material material to add count for
+     */
+    public void addToHolder(Material material) {
+        counter.increment(material);
+    }
+
+    /**
+     * Adds given amount of count to holder.
+     *
+     * @param material material to add count for
+     * @param amount amount to add
+     */
+    public void addToHolder(Material material, int amount) {
+        counter.increment(material, amount);
+    }
+
+    /**
+     * Adds all counts from another holder into this holder.
+     *
+     * @param other holder to merge from
      */
-    public void addToHolder(String material) {
-        counter.get(material).increment();
+    public void merge(BlockHolder other) {
+        counter.merge(other.counter);
     }
 }
@@ -1,44 +1,53 @@
 package tk.taverncraft.survivaltop.land.processor.holders;
 
 import java.util.HashMap;
-import java.util.Set;
 
+import org.bukkit.Material;
+
+import tk.taverncraft.survivaltop.utils.types.MaterialCounter;
+import tk.taverncraft.survivaltop.utils.types.MaterialWorthTable;
 import tk.taverncraft.survivaltop.utils.types.MutableInt;
 
 /**
  * Holder for tracking count of container items.
  */
 public class ContainerHolder {
-    private final HashMap<String, MutableInt> counter;
+    private final MaterialCounter counter;
 
     /**
      * Constructor for ContainerHolder.
      *
-     * @param materials list of container materials
+     * @param worthTable worth table of container materials
      */
-    public ContainerHolder(Set<String> materials) {
-        counter = new HashMap<>();
-        for (String material : materials) {
-            counter.put(material, new MutableInt());
-        }
+    public ContainerHolder(MaterialWorthTable worthTable) {
+        counter = new MaterialCounter(worthTable);
     }
 
     /**
-     * Gets the tracking counter.
+     * Gets the tracking counter as a map of material names, used for GUI and storage.
      *
      * @return counter map
      */
     public HashMap<String, MutableInt> getCounter() {
-        return this.counter;
+        return this.counter.toCounterMap();
+    }
+
+    /**
+     * Gets the total worth of all tracked container items.
+     *
+     * @return total worth
+     */
+    public double getTotalWorth() {
+        return this.counter.getTotalWorth();
     }
 
     /**
      * Adds count to holder.
      *
-     * @param material material to addTask count for
-     * @param amount amount to addTask
+     * @param material material to add count for
+     * @param amount amount to add
      */
-    public void addToHolder(String material, int amount) {
-        counter.get(material).increment(amount);
+    public void addToHolder(Material material, int amount) {
+        counter.increment(material, amount);
     }
 }
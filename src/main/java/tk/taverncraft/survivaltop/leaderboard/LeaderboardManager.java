@@ -8,6 +8,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
@@ -19,6 +20,7 @@ import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.logs.LogManager;
 import tk.taverncraft.survivaltop.messages.MessageManager;
 import tk.taverncraft.survivaltop.cache.EntityCache;
+import tk.taverncraft.survivaltop.utils.ItemUtils;
 
 import static tk.taverncraft.survivaltop.task.queue.TaskType.LEADERBOARD;
 
@@ -34,6 +36,12 @@ public class LeaderboardManager {
     private Iterator<String> leaderboardTaskQueue;
     CommandSender leaderboardSender;
 
+    // tracks leaderboard task progress, only modified on the main thread
+    private int leaderboardTaskTotal;
+    private int leaderboardTasksCompleted;
+    private int leaderboardTasksInProgress;
+    private long lastLiveRefreshTime;
+
     /**
      * Constructor for LeaderboardManager.
      *
@@ -118,9 +126,17 @@ public class LeaderboardManager {
                 setTaskQueueForPlayers();
             }
             runCommandsOnStart();
-            if (leaderboardTaskQueue.hasNext()) {
-                main.getTaskManager().createTask(sender, leaderboardTaskQueue.next(),
-                        LEADERBOARD);
+            main.getLandManager().resetScanStats();
+            ItemUtils.clearCache();
+            if (main.getOptions().isLiveLeaderboard()) {
+                main.getCacheManager().startLiveRanking();
+                lastLiveRefreshTime = System.currentTimeMillis();
+            }
+            leaderboardTasksCompleted = 0;
+            leaderboardTasksInProgress = 0;
+            int concurrency = main.getOptions().getLeaderboardConcurrency();
+            for (int i = 0; i < concurrency && leaderboardTaskQueue.hasNext(); i++) {
+                createNextLeaderboardTask();
             }
         } catch (Exception e) {
             LogManager.error(e.getMessage());
@@ -136,19 +152,19 @@ public class LeaderboardManager {
 
         // path for if last join filter is off or if last join time is set <= 0 (cannot filter)
         if (!main.getOptions().filterLastJoin() || lastJoinTime <= 0) {
-            leaderboardTaskQueue = Arrays.stream(this.main.getServer().getOfflinePlayers())
+            setTaskQueue(Arrays.stream(this.main.getServer().getOfflinePlayers())
                     .filter(p -> !main.getOptions().getLeaderboardBlackList().contains(p.getName()))
-                    .map(OfflinePlayer::getName).iterator();
+                    .map(OfflinePlayer::getName).collect(Collectors.toList()));
             return;
         }
 
         // path for if last join filter is on
         Instant instant = Instant.now();
         long currentTime = instant.getEpochSecond() * 1000;
-        leaderboardTaskQueue = Arrays.stream(this.main.getServer().getOfflinePlayers())
+        setTaskQueue(Arrays.stream(this.main.getServer().getOfflinePlayers())
                 .filter(p -> (currentTime - p.getLastPlayed() <= lastJoinTime)
                         && !main.getOptions().getLeaderboardBlackList().contains(p.getName()))
-                .map(OfflinePlayer::getName).iterator();
+                .map(OfflinePlayer::getName).collect(Collectors.toList()));
     }
 
     /**
@@ -156,9 +172,41 @@ public class LeaderboardManager {
      */
     private void setTaskQueueForGroups() {
         List<String> groups = this.main.getGroupManager().getGroups();
-        leaderboardTaskQueue = groups.stream()
+        setTaskQueue(groups.stream()
                 .filter(g -> !main.getOptions().getLeaderboardBlackList().contains(g))
-                .iterator();
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Sets the leaderboard task queue to the given entities.
+     *
+     * @param entities names of entities to calculate for the leaderboard
+     */
+    private void setTaskQueue(List<String> entities) {
+        leaderboardTaskTotal = entities.size();
+        leaderboardTaskQueue = entities.iterator();
+    }
+
+    /**
+     * Creates a task for the next entity in the leaderboard task queue.
+     */
+    private void createNextLeaderboardTask() {
+        leaderboardTasksInProgress++;
+        main.getTaskManager().createTask(leaderboardSender, leaderboardTaskQueue.next(),
+                LEADERBOARD);
+    }
+
+    /**
+     * Logs the progress of the leaderboard update at every 10% of entities completed.
+     */
+    private void logLeaderboardProgress() {
+        int step = Math.max(1, leaderboardTaskTotal / 10);
+        if (leaderboardTasksCompleted % step != 0
+                || leaderboardTasksCompleted >= leaderboardTaskTotal) {
+            return;
+        }
+        LogManager.info(String.format("Leaderboard update progress: %d/%d entities calculated.",
+                leaderboardTasksCompleted, leaderboardTaskTotal));
     }
 
     /**
@@ -167,6 +215,32 @@ public class LeaderboardManager {
      * @param sender user executing the update
      */
     public void completeLeaderboardUpdate(CommandSender sender) {
+        refreshLeaderboardDisplay();
+        lastUpdateDuration = Instant.now().getEpochSecond() - leaderboardUpdateStartTime;
+        MessageManager.sendMessage(sender, "update-complete",
+                new String[]{"%time%"},
+                new String[]{String.valueOf(lastUpdateDuration)});
+        isUpdating = false;
+    }
+
+    /**
+     * Loads the last saved leaderboard from storage in the background, so that positions are
+     * shown before the first leaderboard update completes.
+     */
+    public void loadLeaderboardFromStorage() {
+        main.getStorageManager().loadFromStorage(entityCacheList -> {
+            if (main.getCacheManager().loadLeaderboard(entityCacheList)) {
+                LogManager.info("Loaded " + entityCacheList.size()
+                        + " entities from storage for the leaderboard.");
+                refreshLeaderboardDisplay();
+            }
+        });
+    }
+
+    /**
+     * Refreshes leaderboard messages and leaderboard signs from the cached positions.
+     */
+    private void refreshLeaderboardDisplay() {
         ArrayList<EntityCache> entityCacheList = main.getCacheManager().getEntityCacheList();
         if (main.getOptions().isUseInteractiveLeaderboard()) {
             MessageManager.setUpInteractiveLeaderboard(entityCacheList,
@@ -176,10 +250,6 @@ public class LeaderboardManager {
             MessageManager.setUpLeaderboard(entityCacheList, main.getOptions().getMinimumWealth(),
                     main.getOptions().getLeaderboardPositionsPerPage());
         }
-        lastUpdateDuration = Instant.now().getEpochSecond() - leaderboardUpdateStartTime;
-        MessageManager.sendMessage(sender, "update-complete",
-                new String[]{"%time%"},
-                new String[]{String.valueOf(lastUpdateDuration)});
         Bukkit.getScheduler().runTask(main, () -> {
             try {
                 new SignHelper(main).updateSigns();
@@ -187,7 +257,23 @@ public class LeaderboardManager {
                 main.getLogger().warning(e.getMessage());
             }
         });
-        isUpdating = false;
+    }
+
+    /**
+     * Publishes changed positions and refreshes leaderboard messages and signs during a live
+     * leaderboard update, at most once every refresh interval. Positions still pending are
+     * published with the full leaderboard at the end of the update.
+     */
+    private void refreshLiveLeaderboard() {
+        long now = System.currentTimeMillis();
+        long interval = main.getOptions().getLiveLeaderboardRefreshInterval() * 1000L;
+        if (now - lastLiveRefreshTime < interval) {
+            return;
+        }
+        lastLiveRefreshTime = now;
+        if (main.getCacheManager().publishLiveRanking()) {
+            refreshLeaderboardDisplay();
+        }
     }
 
     /**
@@ -237,14 +323,27 @@ public class LeaderboardManager {
      */
     public void processLeaderboardUpdate(String name, EntityCache eCache) {
         main.getCacheManager().saveToLeaderboardCache(name.toUpperCase(), eCache);
-        if (!leaderboardTaskQueue.hasNext()) {
-            main.getCacheManager().processLeaderboardCache();
-            completeLeaderboardUpdate(leaderboardSender);
-            runCommandsOnEnd();
-        } else {
-            main.getTaskManager().createTask(leaderboardSender, leaderboardTaskQueue.next(),
-                    LEADERBOARD);
+        if (main.getOptions().isLiveLeaderboard()
+                && main.getCacheManager().updateLiveRanking(name.toUpperCase(), eCache)) {
+            refreshLiveLeaderboard();
+        }
+        leaderboardTasksInProgress--;
+        leaderboardTasksCompleted++;
+        logLeaderboardProgress();
+        if (leaderboardTaskQueue.hasNext()) {
+            createNextLeaderboardTask();
+            return;
+        }
+
+        // other entities may still be calculating when concurrency is above 1
+        if (leaderboardTasksInProgress > 0) {
+            return;
         }
+        main.getCacheManager().processLeaderboardCache();
+        completeLeaderboardUpdate(leaderboardSender);
+        runCommandsOnEnd();
+        main.getLandManager().logScanStats();
+        main.getLandManager().saveLandIndex();
     }
 
     /**
@@ -290,6 +290,26 @@ public class MessageManager {
         sender.sendMessage(message);
     }
 
+    /**
+     * Sends changes in wealth of an entity to player.
+     *
+     * @param sender player to send message to
+     * @param name name of entity
+     * @param days number of days of each change
+     * @param changes formatted change in wealth over each number of days
+     */
+    public static void sendHistoryMessage(CommandSender sender, String name, List<String> days,
+            List<String> changes) {
+        StringBuilder message = new StringBuilder(getParsedMessage("history-header",
+                new String[]{"%entity%"}, new String[]{name}, false));
+        for (int i = 0; i < days.size(); i++) {
+            message.append(getParsedMessage("history-body",
+                    new String[]{"%days%", "%change%"},
+                    new String[]{days.get(i), changes.get(i)}, false));
+        }
+        sender.sendMessage(message.toString());
+    }
+
     /**
      * Creates and returns base component array for a message.
      *
@@ -5,6 +5,7 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.bukkit.Bukkit;
 import org.bukkit.OfflinePlayer;
@@ -20,8 +21,14 @@ import tk.taverncraft.survivaltop.Main;
  */
 public class PapiManager extends PlaceholderExpansion {
     private final Main main;
+    private static final int MAX_REQUEST_CACHE_SIZE = 1000;
+
     private HashMap<String, List<String>> categoriesToPlaceholdersMap;
 
+    // parsed placeholder params mapped to the params string, so each is only parsed once
+    private final ConcurrentHashMap<String, PlaceholderRequest> requestCache =
+            new ConcurrentHashMap<>();
+
     /**
      * Constructor for PapiManager.
      *
@@ -185,130 +192,31 @@ public class PapiManager extends PlaceholderExpansion {
 
     @Override
     public String onRequest(OfflinePlayer player, String params) {
-        if (params.startsWith("top_name_")) {
-            String[] args = params.split("_", 3);
-            try {
-                int index = Integer.parseInt(args[2]) - 1;
-                return main.getCacheManager().getEntityNameAtPosition(index);
-            } catch (NumberFormatException | IndexOutOfBoundsException e) {
-                return "None";
-            }
-        }
-
-        if (params.startsWith("top_wealth_")) {
-            String[] args = params.split("_", 3);
-            try {
-                int index = Integer.parseInt(args[2]) - 1;
-                return main.getCacheManager().getEntityWealthAtPosition(index);
-            } catch (NumberFormatException | IndexOutOfBoundsException e) {
-                return "0";
-            }
-        }
-
-        if (params.startsWith("entity_position")) {
-            String[] args = params.split("_", 3);
-            try {
-                String name = getEntityName(args, player, 2);
-                return name == null ? "None" : main.getCacheManager().getPositionOfEntity(name);
-            } catch (NullPointerException | IndexOutOfBoundsException e) {
-                return "None";
-            }
-        }
-
-        if (params.startsWith("entity_bal_wealth")) {
-            String[] args = params.split("_", 4);
-            try {
-                String name = getEntityName(args, player, 3);
-                return name == null ? "0" : main.getCacheManager().getEntityBalWealth(name);
-            } catch (NullPointerException | IndexOutOfBoundsException e) {
-                return "0";
-            }
-        }
-
-        if (params.startsWith("entity_inv_wealth")) {
-            String[] args = params.split("_", 4);
-            try {
-                String name = getEntityName(args, player, 3);
-                return name == null ? "0" : main.getCacheManager().getEntityInvWealth(name);
-            } catch (NullPointerException | IndexOutOfBoundsException e) {
-                return "0";
-            }
-        }
-
-        if (params.startsWith("entity_land_wealth")) {
-            String[] args = params.split("_", 4);
-            try {
-                String name = getEntityName(args, player, 3);
-                return name == null ? "0" : main.getCacheManager().getEntityLandWealth(name);
-            } catch (NullPointerException | IndexOutOfBoundsException e) {
-                return "0";
-            }
-        }
-
-        if (params.startsWith("entity_block_wealth")) {
-            String[] args = params.split("_", 4);
-            try {
-                String name = getEntityName(args, player, 3);
-                return name == null ? "0" : main.getCacheManager().getEntityBlockWealth(name);
-            } catch (NullPointerException | IndexOutOfBoundsException e) {
-                return "0";
-            }
-        }
-
-        if (params.startsWith("entity_spawner_wealth")) {
-            String[] args = params.split("_", 4);
-            try {
-                String name = getEntityName(args, player, 3);
-                return name == null ? "0" : main.getCacheManager().getEntitySpawnerWealth(name);
-            } catch (NullPointerException | IndexOutOfBoundsException e) {
-                return "0";
-            }
-        }
-
-        if (params.startsWith("entity_container_wealth")) {
-            String[] args = params.split("_", 4);
-            try {
-                String name = getEntityName(args, player, 3);
-                return name == null ? "0" : main.getCacheManager().getEntityContainerWealth(name);
-            } catch (NullPointerException | IndexOutOfBoundsException e) {
-                return "0";
-            }
-        }
-
-        if (params.startsWith("entity_total_wealth")) {
-            String[] args = params.split("_", 4);
-            try {
-                String name = getEntityName(args, player, 3);
-                return name == null ? "0" : main.getCacheManager().getEntityTotalWealth(name);
-            } catch (NullPointerException | IndexOutOfBoundsException e) {
-                return "0";
+        PlaceholderRequest request = requestCache.get(params);
+        if (request == null) {
+            request = PlaceholderRequest.parse(params);
+            if (requestCache.size() >= MAX_REQUEST_CACHE_SIZE) {
+                requestCache.clear();
             }
+            requestCache.put(params, request);
         }
-
-        return null; // Placeholder is unknown by the Expansion
+        String playerName = player == null ? null : player.getName();
+        return request.resolve(this, main.getCacheManager(), main.getHistoryManager(),
+                playerName);
     }
 
     /**
-     * Helper function for getting an entity's uuid.
+     * Helper function for getting the name of the entity that a player belongs to.
      *
-     * @param args args in papi placeholder
-     * @param player player who sent the command
-     * @param length length of input
+     * @param playerName name of player who requested the placeholder
      *
-     * @return name of entity of interest
+     * @return uppercase name of entity of interest
      */
-    public String getEntityName(String[] args, OfflinePlayer player, int length) {
-        String entityName;
-        if (args.length == length) {
-            entityName = player.getName();
-            if (this.main.getOptions().groupIsEnabled()) {
-                String group = this.main.getGroupManager().getGroupOfPlayer(entityName);
-                return group.toUpperCase();
-            }
-        } else {
-            entityName = args[length];
+    public String getEntityName(String playerName) {
+        if (this.main.getOptions().groupIsEnabled()) {
+            String group = this.main.getGroupManager().getGroupOfPlayer(playerName);
+            return group.toUpperCase();
         }
-        return entityName.toUpperCase();
+        return playerName.toUpperCase();
     }
 }
-
@@ -0,0 +1,235 @@
+package tk.taverncraft.survivaltop.papi;
+
+import tk.taverncraft.survivaltop.cache.CacheManager;
+import tk.taverncraft.survivaltop.cache.WealthType;
+import tk.taverncraft.survivaltop.history.HistoryManager;
+
+/**
+ * Parsed form of the params of a placeholder provided by this plugin. Params are parsed once
+ * and cached by the papi manager, so repeated requests for the same placeholder only have to
+ * look up the value.
+ */
+public class PlaceholderRequest {
+    public static final PlaceholderRequest UNKNOWN = new PlaceholderRequest(Type.UNKNOWN, -1,
+            null, null);
+    private static final String CHANGE_SEPARATOR = "_change_";
+
+    private final Type type;
+    private final int index;
+    private final String entityName;
+    private final WealthType wealthType;
+
+    /**
+     * Types of placeholders provided by this plugin.
+     */
+    public enum Type {
+        TOP_NAME,
+        TOP_WEALTH,
+        ENTITY_POSITION,
+        ENTITY_WEALTH,
+        ENTITY_WEALTH_CHANGE,
+        UNKNOWN
+    }
+
+    /**
+     * Constructor for PlaceholderRequest.
+     *
+     * @param type type of placeholder
+     * @param index leaderboard position starting from 0 or number of days for wealth change
+     *     placeholders, -1 if invalid or not applicable
+     * @param entityName uppercase name of entity, or null for the requesting player
+     * @param wealthType type of wealth for entity wealth placeholders
+     */
+    private PlaceholderRequest(Type type, int index, String entityName, WealthType wealthType) {
+        this.type = type;
+        this.index = index;
+        this.entityName = entityName;
+        this.wealthType = wealthType;
+    }
+
+    /**
+     * Parses the params of a placeholder.
+     *
+     * @param params params of placeholder
+     *
+     * @return parsed request, or {@link #UNKNOWN} if the placeholder is not provided by this
+     *     plugin
+     */
+    public static PlaceholderRequest parse(String params) {
+        if (params.startsWith("top_name_")) {
+            return new PlaceholderRequest(Type.TOP_NAME, parseIndex(params), null, null);
+        }
+        if (params.startsWith("top_wealth_")) {
+            return new PlaceholderRequest(Type.TOP_WEALTH, parseIndex(params), null, null);
+        }
+        if (params.startsWith("entity_") && params.contains(CHANGE_SEPARATOR)) {
+            return parseWealthChange(params);
+        }
+        if (params.startsWith("entity_position")) {
+            return new PlaceholderRequest(Type.ENTITY_POSITION, -1,
+                    parseEntityName(params.split("_", 3), 2), null);
+        }
+        WealthType wealthType = parseWealthType(params);
+        if (wealthType != null) {
+            return new PlaceholderRequest(Type.ENTITY_WEALTH, -1,
+                    parseEntityName(params.split("_", 4), 3), wealthType);
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Resolves the value of the placeholder.
+     *
+     * @param papiManager papi manager for looking up the requesting entity
+     * @param cacheManager cache manager holding the leaderboard
+     * @param historyManager history manager for changes in wealth
+     * @param playerName name of requesting player, may be null
+     *
+     * @return value of placeholder, or null if the placeholder is not provided by this plugin
+     */
+    public String resolve(PapiManager papiManager, CacheManager cacheManager,
+            HistoryManager historyManager, String playerName) {
+        switch (type) {
+        case TOP_NAME:
+            try {
+                return cacheManager.getEntityNameAtPosition(index);
+            } catch (IndexOutOfBoundsException e) {
+                return "None";
+            }
+        case TOP_WEALTH:
+            try {
+                return cacheManager.getEntityWealthAtPosition(index);
+            } catch (IndexOutOfBoundsException e) {
+                return "0";
+            }
+        case ENTITY_POSITION:
+            try {
+                String name = getName(papiManager, playerName);
+                return name == null ? "None" : cacheManager.getPositionOfEntity(name);
+            } catch (NullPointerException e) {
+                return "None";
+            }
+        case ENTITY_WEALTH:
+            try {
+                String name = getName(papiManager, playerName);
+                return name == null ? "0" : cacheManager.getEntityWealth(name, wealthType);
+            } catch (NullPointerException e) {
+                return "0";
+            }
+        case ENTITY_WEALTH_CHANGE:
+            try {
+                String name = getName(papiManager, playerName);
+                Double change = name == null || index < 0 ? null
+                        : historyManager.getWealthChange(name, wealthType, index);
+                return change == null ? "0" : String.format("%.02f", change);
+            } catch (NullPointerException e) {
+                return "0";
+            }
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * Gets the name of the entity that the placeholder is for.
+     *
+     * @param papiManager papi manager for looking up the requesting entity
+     * @param playerName name of requesting player
+     *
+     * @return uppercase name of entity
+     */
+    private String getName(PapiManager papiManager, String playerName) {
+        if (entityName != null) {
+            return entityName;
+        }
+        return papiManager.getEntityName(playerName);
+    }
+
+    /**
+     * Parses the leaderboard position of a top placeholder.
+     *
+     * @param params params of placeholder
+     *
+     * @return position starting from 0, or -1 if invalid
+     */
+    private static int parseIndex(String params) {
+        String[] args = params.split("_", 3);
+        try {
+            return Math.max(-1, Integer.parseInt(args[2]) - 1);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Parses a wealth change placeholder, given as the entity wealth placeholder followed by
+     * change, the number of days and optionally the entity name.
+     *
+     * @param params params of placeholder
+     *
+     * @return parsed request, or {@link #UNKNOWN} if the wealth type is not valid
+     */
+    private static PlaceholderRequest parseWealthChange(String params) {
+        int separator = params.indexOf(CHANGE_SEPARATOR);
+        WealthType type = parseWealthType(params.substring(0, separator));
+        if (type == null) {
+            return UNKNOWN;
+        }
+        String[] args = params.substring(separator + CHANGE_SEPARATOR.length()).split("_", 2);
+        int days;
+        try {
+            days = Integer.parseInt(args[0]);
+        } catch (NumberFormatException e) {
+            days = -1;
+        }
+        return new PlaceholderRequest(Type.ENTITY_WEALTH_CHANGE, days, parseEntityName(args, 1),
+                type);
+    }
+
+    /**
+     * Parses the entity name given in a placeholder.
+     *
+     * @param args args in papi placeholder
+     * @param length number of args before the entity name
+     *
+     * @return uppercase name of entity, or null if not given
+     */
+    private static String parseEntityName(String[] args, int length) {
+        if (args.length <= length) {
+            return null;
+        }
+        return args[length].toUpperCase();
+    }
+
+    /**
+     * Parses the type of wealth of an entity wealth placeholder.
+     *
+     * @param params params of placeholder
+     *
+     * @return type of wealth, or null if not an entity wealth placeholder
+     */
+    private static WealthType parseWealthType(String params) {
+        if (params.startsWith("entity_bal_wealth")) {
+            return WealthType.BALANCE;
+        }
+        if (params.startsWith("entity_inv_wealth")) {
+            return WealthType.INVENTORY;
+        }
+        if (params.startsWith("entity_land_wealth")) {
+            return WealthType.LAND;
+        }
+        if (params.startsWith("entity_block_wealth")) {
+            return WealthType.BLOCK;
+        }
+        if (params.startsWith("entity_spawner_wealth")) {
+            return WealthType.SPAWNER;
+        }
+        if (params.startsWith("entity_container_wealth")) {
+            return WealthType.CONTAINER;
+        }
+        if (params.startsWith("entity_total_wealth")) {
+            return WealthType.TOTAL;
+        }
+        return null;
+    }
+}
@@ -23,6 +23,8 @@ public class PermissionsManager {
     private final String signAddPerm = "survtop.sign.addTask";
     private final String guiDetailsSelfPerm = "survtop.gui.details.self";
     private final String guiDetailsOthersPerm = "survtop.gui.details.others";
+    private final String historyCmdPerm = "survtop.history";
+    private final String historyOthersCmdPerm = "survtop.history.others";
 
     /**
      * Constructor for PermissionsManager.
@@ -95,6 +97,14 @@ public class PermissionsManager {
         return hasPermission(guiDetailsOthersPerm, sender);
     }
 
+    public boolean hasHistoryCmdPerm(CommandSender sender) {
+        return hasPermission(historyCmdPerm, sender);
+    }
+
+    public boolean hasHistoryOthersCmdPerm(CommandSender sender) {
+        return hasPermission(historyOthersCmdPerm, sender);
+    }
+
     /**
      * Validates if inputted player exist and sends a message if not.
      *
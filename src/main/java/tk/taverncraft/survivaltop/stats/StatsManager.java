@@ -4,6 +4,7 @@ import java.time.Instant;
 
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
 
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.gui.types.StatsGui;
@@ -56,7 +57,8 @@ public class StatsManager {
             if (main.getOptions().isCalculationMode1()) {
                 MessageManager.sendMessage(sender, "start-calculating-stats");
                 main.getTaskManager().createTask(sender, name, PLAYER);
-            } else {
+            } else if (!main.getStorageManager().loadEntity(name, storedCache ->
+                    sendStoredStats(sender, storedCache))) {
                 MessageManager.sendMessage(sender, "no-updated-leaderboard");
             }
             return;
@@ -83,6 +85,26 @@ public class StatsManager {
                 eCache.getValues());
         }
     }
-}
-
 
+    /**
+     * Sends the stats of an entity looked up from storage when it is not in the cache. Stored
+     * entities have no item counts, so stats are always sent in chat and are not cached.
+     *
+     * @param sender sender who requested for stats
+     * @param eCache entity loaded from storage, or null if not found
+     */
+    private void sendStoredStats(CommandSender sender, EntityCache eCache) {
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                if (eCache == null) {
+                    MessageManager.sendMessage(sender, "no-updated-leaderboard");
+                    return;
+                }
+                eCache.setChat();
+                MessageManager.sendMessage(sender, "entity-stats", eCache.getPlaceholders(),
+                    eCache.getValues());
+            }
+        }.runTask(main);
+    }
+}
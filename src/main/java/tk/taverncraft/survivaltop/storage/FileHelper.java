@@ -0,0 +1,157 @@
+package tk.taverncraft.survivaltop.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.cache.EntityCache;
+import tk.taverncraft.survivaltop.logs.LogManager;
+import tk.taverncraft.survivaltop.papi.PapiManager;
+import tk.taverncraft.survivaltop.utils.FileUtils;
+
+/**
+ * FileHelper is responsible for reading/writing the whole leaderboard from a single compressed
+ * file. Each save is written to a temporary file in one pass and then moved into place, so the
+ * file on disk always holds a complete leaderboard.
+ */
+public class FileHelper implements StorageHelper {
+    private static final int MAGIC = 0x53545342;
+    private static final int FORMAT_VERSION = 1;
+
+    private final Main main;
+    private final File leaderboardFile;
+    private final File tempFile;
+
+    /**
+     * Constructor for FileHelper.
+     *
+     * @param main plugin class
+     */
+    public FileHelper(Main main) {
+        this.main = main;
+        this.leaderboardFile = new File(main.getDataFolder(), "leaderboard.dat");
+        this.tempFile = new File(main.getDataFolder(), "leaderboard.dat.tmp");
+    }
+
+    /**
+     * Saves information to the leaderboard file.
+     *
+     * @param EntityCacheList list of entities to store
+     */
+    public synchronized void saveToStorage(ArrayList<EntityCache> EntityCacheList) {
+        if (!main.getDataFolder().exists() && !main.getDataFolder().mkdirs()) {
+            LogManager.warn("Failed to create plugin folder.");
+            return;
+        }
+        try {
+            writeEntities(EntityCacheList);
+            FileUtils.moveFile(tempFile, leaderboardFile);
+        } catch (IOException e) {
+            LogManager.error("Failed to save leaderboard: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the last saved leaderboard from the leaderboard file.
+     *
+     * @return list of saved entities, empty if nothing has been saved
+     */
+    @Override
+    public synchronized ArrayList<EntityCache> loadFromStorage() {
+        ArrayList<EntityCache> entities = new ArrayList<>();
+        if (!leaderboardFile.exists()) {
+            return entities;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(leaderboardFile))))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                LogManager.warn("Ignoring leaderboard file saved in an unknown format.");
+                return entities;
+            }
+            in.readLong(); // save time
+            in.readUTF(); // entity type
+            String[] categories = new String[in.readInt()];
+            for (int i = 0; i < categories.length; i++) {
+                categories[i] = in.readUTF();
+            }
+            int entityCount = in.readInt();
+            for (int i = 0; i < entityCount; i++) {
+                String name = in.readUTF();
+                double balWealth = in.readDouble();
+                double blockWealth = in.readDouble();
+                double spawnerWealth = in.readDouble();
+                double containerWealth = in.readDouble();
+                double inventoryWealth = in.readDouble();
+                LinkedHashMap<String, Double> papiWealth = new LinkedHashMap<>();
+                for (String category : categories) {
+                    papiWealth.put(category, in.readDouble());
+                }
+                entities.add(new EntityCache(name, balWealth, papiWealth, blockWealth,
+                        spawnerWealth, containerWealth, inventoryWealth));
+            }
+        } catch (IOException e) {
+            LogManager.error("Failed to load leaderboard: " + e.getMessage());
+            entities.clear();
+        }
+        return entities;
+    }
+
+    /**
+     * Writes entities to the temporary file and syncs it to disk.
+     *
+     * @param EntityCacheList list of entities to write
+     *
+     * @throws IOException if the file cannot be written to
+     */
+    private void writeEntities(ArrayList<EntityCache> EntityCacheList) throws IOException {
+        List<String> categories = new ArrayList<>();
+        PapiManager papiManager = main.getPapiManager();
+        if (papiManager != null) {
+            categories = papiManager.getPapiCategories();
+        }
+        String entityType = "player";
+        if (this.main.getOptions().groupIsEnabled()) {
+            entityType = "group";
+        }
+
+        FileOutputStream fileOut = new FileOutputStream(tempFile);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(fileOut)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeUTF(entityType);
+            out.writeInt(categories.size());
+            for (String category : categories) {
+                out.writeUTF(category);
+            }
+            out.writeInt(EntityCacheList.size());
+            for (EntityCache eCache : EntityCacheList) {
+                out.writeUTF(eCache.getName());
+                out.writeDouble(eCache.getBalWealth());
+                out.writeDouble(eCache.getBlockWealth());
+                out.writeDouble(eCache.getSpawnerWealth());
+                out.writeDouble(eCache.getContainerWealth());
+                out.writeDouble(eCache.getInventoryWealth());
+                LinkedHashMap<String, Double> papiWealth = eCache.getPapiWealth();
+                for (String category : categories) {
+                    Double value = papiWealth.get(category);
+                    out.writeDouble(value == null ? 0 : value);
+                }
+            }
+            out.flush();
+            fileOut.getFD().sync();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package tk.taverncraft.survivaltop.storage;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+
+/**
+ * Small pool of database connections, so that saves reuse open connections instead of
+ * connecting to the database every time. Connections are checked before being handed out and
+ * replaced if they were closed by the database.
+ */
+public class SqlConnectionPool {
+    private static final int VALIDATION_TIMEOUT = 2;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxIdle;
+
+    // idle connections, guarded by this pool
+    private final ArrayDeque<Connection> idleConnections = new ArrayDeque<>();
+    private boolean closed;
+
+    /**
+     * Constructor for SqlConnectionPool.
+     *
+     * @param url jdbc url of database
+     * @param user user to connect as
+     * @param password password of user
+     * @param maxIdle maximum number of idle connections kept open
+     */
+    public SqlConnectionPool(String url, String user, String password, int maxIdle) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxIdle = Math.max(1, maxIdle);
+    }
+
+    /**
+     * Gets an open connection from the pool, or opens a new one if none are idle.
+     *
+     * @return open connection
+     *
+     * @throws SQLException if a connection cannot be opened
+     */
+    public Connection getConnection() throws SQLException {
+        while (true) {
+            Connection conn;
+            synchronized (this) {
+                if (closed) {
+                    throw new SQLException("Connection pool has been closed.");
+                }
+                conn = idleConnections.poll();
+            }
+            if (conn == null) {
+                return DriverManager.getConnection(url, user, password);
+            }
+            if (conn.isValid(VALIDATION_TIMEOUT)) {
+                return conn;
+            }
+            closeQuietly(conn);
+        }
+    }
+
+    /**
+     * Returns a connection to the pool once done with it. Connections are closed instead if
+     * the pool is full or has been closed.
+     *
+     * @param conn connection to return
+     */
+    public void release(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            closeQuietly(conn);
+            return;
+        }
+        synchronized (this) {
+            if (!closed && idleConnections.size() < maxIdle) {
+                idleConnections.push(conn);
+                return;
+            }
+        }
+        closeQuietly(conn);
+    }
+
+    /**
+     * Closes the pool along with all idle connections.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            for (Connection conn : idleConnections) {
+                closeQuietly(conn);
+            }
+            idleConnections.clear();
+        }
+    }
+
+    /**
+     * Closes a connection, ignoring any errors.
+     *
+     * @param conn connection to close
+     */
+    private void closeQuietly(Connection conn) {
+        try {
+            conn.close();
+        } catch (SQLException ignored) {
+        }
+    }
+}
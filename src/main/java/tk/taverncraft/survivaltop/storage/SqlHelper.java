@@ -1,14 +1,16 @@
 package tk.taverncraft.survivaltop.storage;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.DatabaseMetaData;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Set;
 
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.logs.LogManager;
@@ -19,13 +21,17 @@ import tk.taverncraft.survivaltop.cache.EntityCache;
  * SqlHelper is responsible for reading/writing from MySQL database.
  */
 public class SqlHelper implements StorageHelper {
+    private static final String[] WEALTH_COLUMNS = {"TOTAL_WEALTH", "LAND_WEALTH",
+        "BALANCE_WEALTH", "BLOCK_WEALTH", "SPAWNER_WEALTH", "CONTAINER_WEALTH",
+        "INVENTORY_WEALTH"};
+
     private final Main main;
     private String dbName;
     private String tableName;
     private String port;
     private String url;
-    private String user;
-    private String password;
+    private int batchSize;
+    private SqlConnectionPool connectionPool;
 
     /**
      * Constructor for SqlHelper.
@@ -42,104 +48,236 @@ public class SqlHelper implements StorageHelper {
      */
     private void initializeConnectionInfo() {
         dbName = main.getOptions().getDatabaseName();
-        tableName = main.getOptions().getTableName();
+        tableName = "`" + main.getOptions().getTableName().replace("`", "") + "`";
         port = main.getOptions().getPort();
         url = "jdbc:mysql://" + main.getOptions().getHost() + ":"
-            + port + "/" + dbName + "?useSSL=false";
-        user = main.getOptions().getUser();
-        password = main.getOptions().getPassword();
+            + port + "/" + dbName + "?useSSL=false&rewriteBatchedStatements=true";
+        batchSize = main.getOptions().getStorageBatchSize();
+        connectionPool = new SqlConnectionPool(url, main.getOptions().getUser(),
+            main.getOptions().getPassword(), main.getOptions().getConnectionPoolSize());
     }
 
     /**
-     * Saves information to mysql database.
+     * Saves information to mysql database. Entities are upserted in batches within a single
+     * transaction, and entities no longer on the leaderboard are removed at the end of it, so
+     * the table is never seen empty or half written.
      *
      * @param EntityCacheList list of entities to store
      */
     public void saveToStorage(ArrayList<EntityCache> EntityCacheList) {
-        PapiManager papiManager = main.getPapiManager();
-        List<String> categories = new ArrayList<>();
-        if (papiManager != null) {
-            categories = papiManager.getPapiCategories();
-        }
-        StringBuilder columns = new StringBuilder("ENTITY_NAME, ENTITY_TYPE, TOTAL_WEALTH, " +
-            "LAND_WEALTH, BALANCE_WEALTH, BLOCK_WEALTH, SPAWNER_WEALTH, CONTAINER_WEALTH, " +
-            "INVENTORY_WEALTH, ");
-        for (String category : categories) {
-            columns.append(category.toUpperCase().replaceAll("-", "_")).append(", ");
-        }
-        columns = new StringBuilder(columns.substring(0, columns.length() - 2));
-        String header = "INSERT INTO " + tableName + " (" + columns + ") VALUES ";
-        StringBuilder body = new StringBuilder();
-        int cacheSize = EntityCacheList.size();
-        for (int i = 0; i < cacheSize; i++) {
-            EntityCache eCache = EntityCacheList.get(i);
-            body.append(getEntityQuery(eCache));
-        }
-
-        if (body.length() == 0) {
-            return;
-        }
-        String finalQuery = header + body.substring(0, body.length() - 2) + ";";
-        try (Connection conn = this.connectToSql(); PreparedStatement stmt =
-                conn.prepareStatement(finalQuery)) {
-            if (conn != null) {
-                stmt.executeUpdate();
+        List<String> categories = getPapiCategories();
+        Connection conn = null;
+        try {
+            conn = connectionPool.getConnection();
+            if (!databaseExists(dbName, conn)) {
+                LogManager.error("Database " + dbName + " does not exist.");
+                return;
             }
-        } catch (NullPointerException | SQLException e) {
+            createOrMigrateTable(conn, categories);
+            upsertEntities(conn, EntityCacheList, categories);
+        } catch (SQLException e) {
             LogManager.error(e.getMessage());
+        } finally {
+            connectionPool.release(conn);
         }
     }
 
     /**
-     * Connects to MySQL database.
+     * Loads the latest wealth of all entities from mysql database.
      *
-     * @return returns a valid connection on success or null otherwise
+     * @return list of saved entities ordered by total wealth, empty if nothing has been saved
      */
-    public Connection connectToSql() {
+    @Override
+    public ArrayList<EntityCache> loadFromStorage() {
+        ArrayList<EntityCache> entities = new ArrayList<>();
+        Connection conn = null;
         try {
-            Connection conn;
-            conn = DriverManager.getConnection(url, user, password);
-
-            if (!databaseExists(dbName, conn)) {
-                return null;
+            conn = connectionPool.getConnection();
+            if (!databaseExists(dbName, conn)
+                    || !tableExists(main.getOptions().getTableName(), conn)) {
+                return entities;
             }
-
-            PapiManager papiManager = main.getPapiManager();
+            Set<String> columns = getColumns(main.getOptions().getTableName(), conn);
             List<String> categories = new ArrayList<>();
-            if (papiManager != null) {
-                categories = papiManager.getPapiCategories();
+            for (String category : getPapiCategories()) {
+                if (columns.contains(getColumnName(category))) {
+                    categories.add(category);
+                }
+            }
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT * FROM " + tableName
+                     + " ORDER BY TOTAL_WEALTH DESC")) {
+                while (rs.next()) {
+                    LinkedHashMap<String, Double> papiWealth = new LinkedHashMap<>();
+                    for (String category : categories) {
+                        papiWealth.put(category, rs.getDouble(getColumnName(category)));
+                    }
+                    entities.add(new EntityCache(rs.getString("ENTITY_NAME"),
+                        rs.getDouble("BALANCE_WEALTH"), papiWealth, rs.getDouble("BLOCK_WEALTH"),
+                        rs.getDouble("SPAWNER_WEALTH"), rs.getDouble("CONTAINER_WEALTH"),
+                        rs.getDouble("INVENTORY_WEALTH")));
+                }
+            }
+        } catch (SQLException e) {
+            LogManager.error(e.getMessage());
+            entities.clear();
+        } finally {
+            connectionPool.release(conn);
+        }
+        return entities;
+    }
+
+    /**
+     * Closes all pooled connections.
+     */
+    @Override
+    public void shutdown() {
+        connectionPool.close();
+    }
+
+    /**
+     * Creates the table if it does not exist, or adds columns for papi categories and update
+     * time that are missing from a table created by an older version.
+     *
+     * @param conn an open connection
+     * @param categories papi categories to store
+     */
+    private void createOrMigrateTable(Connection conn, List<String> categories)
+            throws SQLException {
+        if (!tableExists(main.getOptions().getTableName(), conn)) {
+            StringBuilder query = new StringBuilder("CREATE TABLE " + tableName + " ("
+                    + "ENTITY_NAME VARCHAR (36) NOT NULL, "
+                    + "ENTITY_TYPE VARCHAR (10) NOT NULL, ");
+            for (String column : WEALTH_COLUMNS) {
+                query.append(column).append(" DECIMAL (18, 2), ");
             }
-            StringBuilder columns = new StringBuilder();
             for (String category : categories) {
-                columns.append(category.toUpperCase().replaceAll("-", "_"))
-                        .append(" DECIMAL (18, 2), ");
+                query.append(getColumnName(category)).append(" DECIMAL (18, 2), ");
             }
-            if (tableExists(tableName, conn)) {
-                PreparedStatement delStmt = conn.prepareStatement("DROP TABLE " + tableName);
-                delStmt.execute();
-                delStmt.close();
+            query.append("LAST_UPDATED BIGINT NOT NULL DEFAULT 0, PRIMARY KEY (ENTITY_NAME))");
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate(query.toString());
             }
-            String query = "CREATE TABLE " + tableName + "("
-                    + "ENTITY_NAME VARCHAR (36) NOT NULL, "
-                    + "ENTITY_TYPE VARCHAR (10) NOT NULL, "
-                    + "TOTAL_WEALTH DECIMAL (18, 2), "
-                    + "LAND_WEALTH DECIMAL (18, 2), "
-                    + "BALANCE_WEALTH DECIMAL (18, 2), "
-                    + "BLOCK_WEALTH DECIMAL (18, 2), "
-                    + "SPAWNER_WEALTH DECIMAL (18, 2), "
-                    + "CONTAINER_WEALTH DECIMAL (18, 2), "
-                    + "INVENTORY_WEALTH DECIMAL (18, 2), "
-                    + columns
-                    + "PRIMARY KEY (ENTITY_NAME))";
-            PreparedStatement stmt = conn.prepareStatement(query);
+            return;
+        }
+
+        Set<String> existingColumns = getColumns(main.getOptions().getTableName(), conn);
+        try (Statement stmt = conn.createStatement()) {
+            for (String category : categories) {
+                String column = getColumnName(category);
+                if (!existingColumns.contains(column)) {
+                    stmt.executeUpdate("ALTER TABLE " + tableName + " ADD COLUMN " + column
+                            + " DECIMAL (18, 2)");
+                }
+            }
+            if (!existingColumns.contains("LAST_UPDATED")) {
+                stmt.executeUpdate("ALTER TABLE " + tableName
+                        + " ADD COLUMN LAST_UPDATED BIGINT NOT NULL DEFAULT 0");
+            }
+        }
+    }
+
+    /**
+     * Upserts all entities in batches and removes entities that were not part of this save.
+     *
+     * @param conn an open connection
+     * @param EntityCacheList list of entities to store
+     * @param categories papi categories to store
+     */
+    private void upsertEntities(Connection conn, ArrayList<EntityCache> EntityCacheList,
+            List<String> categories) throws SQLException {
+        String entityType = "player";
+        if (this.main.getOptions().groupIsEnabled()) {
+            entityType = "group";
+        }
+        long updateTime = System.currentTimeMillis();
+        conn.setAutoCommit(false);
+        try (PreparedStatement stmt = conn.prepareStatement(getUpsertQuery(categories))) {
+            int batched = 0;
+            for (EntityCache eCache : EntityCacheList) {
+                int index = 1;
+                stmt.setString(index++, eCache.getName());
+                stmt.setString(index++, entityType);
+                stmt.setDouble(index++, eCache.getTotalWealth());
+                stmt.setDouble(index++, eCache.getLandWealth());
+                stmt.setDouble(index++, eCache.getBalWealth());
+                stmt.setDouble(index++, eCache.getBlockWealth());
+                stmt.setDouble(index++, eCache.getSpawnerWealth());
+                stmt.setDouble(index++, eCache.getContainerWealth());
+                stmt.setDouble(index++, eCache.getInventoryWealth());
+                LinkedHashMap<String, Double> papiWealth = eCache.getPapiWealth();
+                for (String category : categories) {
+                    Double value = papiWealth.get(category);
+                    stmt.setDouble(index++, value == null ? 0 : value);
+                }
+                stmt.setLong(index, updateTime);
+                stmt.addBatch();
+                if (++batched % batchSize == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM " + tableName
+                + " WHERE LAST_UPDATED <> ?")) {
+            stmt.setLong(1, updateTime);
             stmt.executeUpdate();
-            stmt.close();
-            return conn;
+        }
+        conn.commit();
+    }
+
+    /**
+     * Gets the query for inserting an entity, or updating it if it already exists.
+     *
+     * @param categories papi categories to store
+     *
+     * @return upsert query
+     */
+    private String getUpsertQuery(List<String> categories) {
+        List<String> columns = new ArrayList<>();
+        for (String column : WEALTH_COLUMNS) {
+            columns.add(column);
+        }
+        for (String category : categories) {
+            columns.add(getColumnName(category));
+        }
+        columns.add("LAST_UPDATED");
+
+        StringBuilder query = new StringBuilder("INSERT INTO " + tableName
+                + " (ENTITY_NAME, ENTITY_TYPE");
+        StringBuilder values = new StringBuilder("?, ?");
+        StringBuilder updates = new StringBuilder("ENTITY_TYPE = VALUES(ENTITY_TYPE)");
+        for (String column : columns) {
+            query.append(", ").append(column);
+            values.append(", ?");
+            updates.append(", ").append(column).append(" = VALUES(").append(column).append(")");
+        }
+        return query + ") VALUES (" + values + ") ON DUPLICATE KEY UPDATE " + updates;
+    }
 
-        } catch (SQLException e){
-            LogManager.warn(e.getMessage());
-            return null;
+    /**
+     * Gets the papi categories to store.
+     *
+     * @return list of papi categories
+     */
+    private List<String> getPapiCategories() {
+        PapiManager papiManager = main.getPapiManager();
+        if (papiManager == null) {
+            return new ArrayList<>();
         }
+        return papiManager.getPapiCategories();
+    }
+
+    /**
+     * Gets the column name of a papi category, keeping only characters that are safe to use
+     * in a query.
+     *
+     * @param category papi category
+     *
+     * @return column name
+     */
+    private String getColumnName(String category) {
+        return category.toUpperCase().replaceAll("[^A-Z0-9_]", "_");
     }
 
     /**
@@ -151,11 +289,7 @@ public class SqlHelper implements StorageHelper {
      * @return true if database exist, false otherwise
      */
     public boolean databaseExists(String dbName, Connection conn) throws SQLException {
-        ResultSet rs;
-        if (conn != null) {
-
-            rs = conn.getMetaData().getCatalogs();
-
+        try (ResultSet rs = conn.getMetaData().getCatalogs()) {
             while (rs.next()) {
                 String catalogs = rs.getString(1);
 
@@ -163,15 +297,12 @@ public class SqlHelper implements StorageHelper {
                     return true;
                 }
             }
-
-        } else {
-            LogManager.error("Unable to connect to database.");
         }
         return false;
     }
 
     /**
-     * Checks if table exist and create if not.
+     * Checks if table exist.
      *
      * @param tableName name of table
      * @param conn an open connection
@@ -179,41 +310,34 @@ public class SqlHelper implements StorageHelper {
      * @return true if table exist, false otherwise
      */
     public boolean tableExists(String tableName, Connection conn) throws SQLException {
-        boolean found = false;
         DatabaseMetaData databaseMetaData = conn.getMetaData();
-        ResultSet rs = databaseMetaData.getTables(null, null,
-            tableName, null);
-        while (rs.next()) {
-            String name = rs.getString("TABLE_NAME");
-            if (tableName.equals(name)) {
-                found = true;
-                break;
+        try (ResultSet rs = databaseMetaData.getTables(dbName, null, tableName, null)) {
+            while (rs.next()) {
+                String name = rs.getString("TABLE_NAME");
+                if (tableName.equalsIgnoreCase(name)) {
+                    return true;
+                }
             }
         }
-        return found;
+        return false;
     }
 
     /**
-     * Appends individual entities to sql query.
+     * Gets the names of all columns in a table.
+     *
+     * @param tableName name of table
+     * @param conn an open connection
      *
-     * @param eCache entity to append
+     * @return uppercase names of columns
      */
-    public String getEntityQuery(EntityCache eCache) {
-        String entityName = eCache.getName();
-        String entityType = "player";
-        if (this.main.getOptions().groupIsEnabled()) {
-            entityType = "group";
-        }
-        LinkedHashMap<String, Double> papiWealth = eCache.getPapiWealth();
-        StringBuilder papiValues = new StringBuilder("', '");
-        for (Double value : papiWealth.values()) {
-            papiValues.append(value).append("', '");
+    private Set<String> getColumns(String tableName, Connection conn) throws SQLException {
+        Set<String> columns = new HashSet<>();
+        DatabaseMetaData databaseMetaData = conn.getMetaData();
+        try (ResultSet rs = databaseMetaData.getColumns(dbName, null, tableName, null)) {
+            while (rs.next()) {
+                columns.add(rs.getString("COLUMN_NAME").toUpperCase());
+            }
         }
-        papiValues = new StringBuilder(papiValues.substring(0, papiValues.length() - 4) + "'), ");
-        return "('" + entityName + "', '" + entityType + "', '"
-            + eCache.getTotalWealth() + "', '" + eCache.getLandWealth() + "', '"
-            + eCache.getBalWealth() + "', '" + eCache.getBlockWealth() + "', '"
-            + eCache.getSpawnerWealth() + "', '" + eCache.getContainerWealth() + "', '"
-            + eCache.getInventoryWealth() + papiValues;
+        return columns;
     }
 }
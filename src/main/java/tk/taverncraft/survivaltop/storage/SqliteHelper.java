@@ -0,0 +1,370 @@
+package tk.taverncraft.survivaltop.storage;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.cache.EntityCache;
+import tk.taverncraft.survivaltop.logs.LogManager;
+import tk.taverncraft.survivaltop.papi.PapiManager;
+
+/**
+ * SqliteHelper is responsible for reading/writing from an embedded SQLite database kept in the
+ * plugin folder. Only the latest wealth of each entity is kept, wealth over time is recorded by
+ * the history manager.
+ */
+public class SqliteHelper implements StorageHelper {
+    private static final String[] WEALTH_COLUMNS = {"TOTAL_WEALTH", "LAND_WEALTH",
+        "BALANCE_WEALTH", "BLOCK_WEALTH", "SPAWNER_WEALTH", "CONTAINER_WEALTH",
+        "INVENTORY_WEALTH"};
+
+    private final Main main;
+    private final String tableName;
+    private final int batchSize;
+    private final SqlConnectionPool connectionPool;
+    private boolean tablesCreated;
+
+    // time of the last save, entities not updated at this time are removed
+    private long lastRunTime;
+
+    /**
+     * Constructor for SqliteHelper.
+     *
+     * @param main plugin class
+     */
+    public SqliteHelper(Main main) {
+        this.main = main;
+        String baseName = main.getOptions().getTableName().replaceAll("[^A-Za-z0-9_]", "_");
+        this.tableName = "\"" + baseName + "\"";
+        this.batchSize = main.getOptions().getStorageBatchSize();
+        try {
+            Class.forName("org.sqlite.JDBC");
+        } catch (ClassNotFoundException e) {
+            LogManager.warn("SQLite driver not found, storage will not be available.");
+        }
+        File databaseFile = new File(main.getDataFolder(), "survtop.db");
+        this.connectionPool = new SqlConnectionPool("jdbc:sqlite:"
+            + databaseFile.getAbsolutePath(), null, null, 1);
+    }
+
+    /**
+     * Saves information to the database. The latest wealth of each entity is replaced within a
+     * single transaction.
+     *
+     * @param EntityCacheList list of entities to store
+     */
+    public synchronized void saveToStorage(ArrayList<EntityCache> EntityCacheList) {
+        if (!main.getDataFolder().exists() && !main.getDataFolder().mkdirs()) {
+            LogManager.warn("Failed to create plugin folder.");
+            return;
+        }
+        List<String> categories = getPapiCategories();
+        Connection conn = null;
+        try {
+            conn = connectionPool.getConnection();
+            createOrMigrateTables(conn, categories);
+            // saves within the same millisecond still need distinct times to remove entities
+            long runTime = Math.max(System.currentTimeMillis(), lastRunTime + 1);
+            lastRunTime = runTime;
+            conn.setAutoCommit(false);
+            replaceEntities(conn, EntityCacheList, categories, runTime);
+            conn.commit();
+        } catch (SQLException e) {
+            LogManager.error(e.getMessage());
+        } finally {
+            connectionPool.release(conn);
+        }
+    }
+
+    /**
+     * Loads the latest wealth of all entities from the database.
+     *
+     * @return list of saved entities ordered by total wealth, empty if nothing has been saved
+     */
+    @Override
+    public synchronized ArrayList<EntityCache> loadFromStorage() {
+        ArrayList<EntityCache> entities = new ArrayList<>();
+        if (!new File(main.getDataFolder(), "survtop.db").exists()) {
+            return entities;
+        }
+        Connection conn = null;
+        try {
+            conn = connectionPool.getConnection();
+            List<String> categories = getStoredCategories(conn);
+            if (categories == null) {
+                return entities;
+            }
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery("SELECT * FROM " + tableName
+                     + " ORDER BY TOTAL_WEALTH DESC")) {
+                while (rs.next()) {
+                    entities.add(readEntity(rs, categories));
+                }
+            }
+        } catch (SQLException e) {
+            LogManager.error(e.getMessage());
+            entities.clear();
+        } finally {
+            connectionPool.release(conn);
+        }
+        return entities;
+    }
+
+    /**
+     * Loads the latest wealth of a single entity from the database.
+     *
+     * @param name name of entity, case insensitive
+     *
+     * @return saved entity, or null if it has not been saved
+     */
+    @Override
+    public synchronized EntityCache loadEntity(String name) {
+        if (!new File(main.getDataFolder(), "survtop.db").exists()) {
+            return null;
+        }
+        Connection conn = null;
+        try {
+            conn = connectionPool.getConnection();
+            List<String> categories = getStoredCategories(conn);
+            if (categories == null) {
+                return null;
+            }
+            try (PreparedStatement stmt = conn.prepareStatement("SELECT * FROM " + tableName
+                    + " WHERE ENTITY_NAME = ? COLLATE NOCASE")) {
+                stmt.setString(1, name);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    return rs.next() ? readEntity(rs, categories) : null;
+                }
+            }
+        } catch (SQLException e) {
+            LogManager.error(e.getMessage());
+            return null;
+        } finally {
+            connectionPool.release(conn);
+        }
+    }
+
+    /**
+     * Closes the connection to the database.
+     */
+    @Override
+    public void shutdown() {
+        connectionPool.close();
+    }
+
+    /**
+     * Creates the table and indexes if they do not exist, and adds columns for papi categories
+     * missing from the table.
+     *
+     * @param conn an open connection
+     * @param categories papi categories to store
+     */
+    private void createOrMigrateTables(Connection conn, List<String> categories)
+            throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            if (!tablesCreated) {
+                stmt.execute("PRAGMA journal_mode=WAL");
+                StringBuilder query = new StringBuilder("CREATE TABLE IF NOT EXISTS " + tableName
+                    + " (ENTITY_NAME TEXT NOT NULL PRIMARY KEY, ENTITY_TYPE TEXT NOT NULL, ");
+                for (String column : WEALTH_COLUMNS) {
+                    query.append(column).append(" REAL, ");
+                }
+                query.append("LAST_UPDATED INTEGER NOT NULL DEFAULT 0)");
+                stmt.executeUpdate(query.toString());
+                stmt.executeUpdate("CREATE INDEX IF NOT EXISTS \"idx_" + unquote(tableName)
+                    + "_total\" ON " + tableName + " (TOTAL_WEALTH DESC)");
+                stmt.executeUpdate("CREATE INDEX IF NOT EXISTS \"idx_" + unquote(tableName)
+                    + "_name\" ON " + tableName + " (ENTITY_NAME COLLATE NOCASE)");
+                tablesCreated = true;
+            }
+
+            Set<String> existingColumns = getColumns(conn, tableName);
+            for (String category : categories) {
+                String column = getColumnName(category);
+                if (!existingColumns.contains(column)) {
+                    stmt.executeUpdate("ALTER TABLE " + tableName + " ADD COLUMN " + column
+                        + " REAL");
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the latest wealth of all entities and removes entities that were not part of
+     * this save.
+     *
+     * @param conn an open connection
+     * @param EntityCacheList list of entities to store
+     * @param categories papi categories to store
+     * @param runTime time of this save
+     */
+    private void replaceEntities(Connection conn, ArrayList<EntityCache> EntityCacheList,
+            List<String> categories, long runTime) throws SQLException {
+        String entityType = "player";
+        if (this.main.getOptions().groupIsEnabled()) {
+            entityType = "group";
+        }
+        StringBuilder query = new StringBuilder("INSERT OR REPLACE INTO " + tableName
+            + " (ENTITY_NAME, ENTITY_TYPE");
+        StringBuilder values = new StringBuilder("?, ?");
+        for (String column : WEALTH_COLUMNS) {
+            query.append(", ").append(column);
+            values.append(", ?");
+        }
+        for (String category : categories) {
+            query.append(", ").append(getColumnName(category));
+            values.append(", ?");
+        }
+        query.append(", LAST_UPDATED) VALUES (").append(values).append(", ?)");
+
+        try (PreparedStatement stmt = conn.prepareStatement(query.toString())) {
+            int batched = 0;
+            for (EntityCache eCache : EntityCacheList) {
+                int index = 1;
+                stmt.setString(index++, eCache.getName());
+                stmt.setString(index++, entityType);
+                index = setWealth(stmt, index, eCache);
+                LinkedHashMap<String, Double> papiWealth = eCache.getPapiWealth();
+                for (String category : categories) {
+                    Double value = papiWealth.get(category);
+                    stmt.setDouble(index++, value == null ? 0 : value);
+                }
+                stmt.setLong(index, runTime);
+                stmt.addBatch();
+                if (++batched % batchSize == 0) {
+                    stmt.executeBatch();
+                }
+            }
+            stmt.executeBatch();
+        }
+        try (PreparedStatement stmt = conn.prepareStatement("DELETE FROM " + tableName
+                + " WHERE LAST_UPDATED <> ?")) {
+            stmt.setLong(1, runTime);
+            stmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Sets the wealth columns of an entity in order of {@link #WEALTH_COLUMNS}.
+     *
+     * @param stmt statement to set values for
+     * @param index index of first wealth column
+     * @param eCache entity to set values of
+     *
+     * @return index after the last wealth column
+     */
+    private int setWealth(PreparedStatement stmt, int index, EntityCache eCache)
+            throws SQLException {
+        stmt.setDouble(index++, eCache.getTotalWealth());
+        stmt.setDouble(index++, eCache.getLandWealth());
+        stmt.setDouble(index++, eCache.getBalWealth());
+        stmt.setDouble(index++, eCache.getBlockWealth());
+        stmt.setDouble(index++, eCache.getSpawnerWealth());
+        stmt.setDouble(index++, eCache.getContainerWealth());
+        stmt.setDouble(index++, eCache.getInventoryWealth());
+        return index;
+    }
+
+    /**
+     * Gets the papi categories that have a column in the table.
+     *
+     * @param conn an open connection
+     *
+     * @return list of papi categories, or null if the table does not exist
+     */
+    private List<String> getStoredCategories(Connection conn) throws SQLException {
+        Set<String> columns = getColumns(conn, tableName);
+        if (columns.isEmpty()) {
+            return null;
+        }
+        List<String> categories = new ArrayList<>();
+        for (String category : getPapiCategories()) {
+            if (columns.contains(getColumnName(category))) {
+                categories.add(category);
+            }
+        }
+        return categories;
+    }
+
+    /**
+     * Reads an entity from the current row of a result set.
+     *
+     * @param rs result set positioned on a row
+     * @param categories papi categories stored in the table
+     *
+     * @return entity read from the row
+     */
+    private EntityCache readEntity(ResultSet rs, List<String> categories) throws SQLException {
+        LinkedHashMap<String, Double> papiWealth = new LinkedHashMap<>();
+        for (String category : categories) {
+            papiWealth.put(category, rs.getDouble(getColumnName(category)));
+        }
+        return new EntityCache(rs.getString("ENTITY_NAME"), rs.getDouble("BALANCE_WEALTH"),
+            papiWealth, rs.getDouble("BLOCK_WEALTH"), rs.getDouble("SPAWNER_WEALTH"),
+            rs.getDouble("CONTAINER_WEALTH"), rs.getDouble("INVENTORY_WEALTH"));
+    }
+
+    /**
+     * Gets the papi categories to store.
+     *
+     * @return list of papi categories
+     */
+    private List<String> getPapiCategories() {
+        PapiManager papiManager = main.getPapiManager();
+        if (papiManager == null) {
+            return new ArrayList<>();
+        }
+        return papiManager.getPapiCategories();
+    }
+
+    /**
+     * Gets the column name of a papi category, keeping only characters that are safe to use
+     * in a query.
+     *
+     * @param category papi category
+     *
+     * @return column name
+     */
+    private String getColumnName(String category) {
+        return category.toUpperCase().replaceAll("[^A-Z0-9_]", "_");
+    }
+
+    /**
+     * Gets the names of all columns in a table.
+     *
+     * @param conn an open connection
+     * @param table quoted name of table
+     *
+     * @return uppercase names of columns, empty if the table does not exist
+     */
+    private Set<String> getColumns(Connection conn, String table) throws SQLException {
+        Set<String> columns = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                columns.add(rs.getString("name").toUpperCase());
+            }
+        }
+        return columns;
+    }
+
+    /**
+     * Removes the quotes around a table name.
+     *
+     * @param table quoted name of table
+     *
+     * @return name of table without quotes
+     */
+    private String unquote(String table) {
+        return table.substring(1, table.length() - 1);
+    }
+}
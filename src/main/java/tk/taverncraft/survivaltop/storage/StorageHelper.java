@@ -16,4 +16,31 @@ public interface StorageHelper {
      * @param EntityCacheList list of entities to store
      */
     void saveToStorage(ArrayList<EntityCache> EntityCacheList);
+
+    /**
+     * Loads the last saved leaderboard from storage.
+     *
+     * @return list of saved entities, empty if nothing has been saved
+     */
+    default ArrayList<EntityCache> loadFromStorage() {
+        return new ArrayList<>();
+    }
+
+    /**
+     * Loads the last saved wealth of a single entity from storage.
+     *
+     * @param name name of entity, case insensitive
+     *
+     * @return saved entity, or null if it has not been saved or lookups are not supported
+     */
+    default EntityCache loadEntity(String name) {
+        return null;
+    }
+
+    /**
+     * Releases resources held by the storage, called when the storage is replaced or the
+     * plugin is disabled.
+     */
+    default void shutdown() {
+    }
 }
@@ -1,17 +1,36 @@
 package tk.taverncraft.survivaltop.storage;
 
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.cache.EntityCache;
+import tk.taverncraft.survivaltop.logs.LogManager;
 
 /**
- * StorageManager decides the storage helper to use.
+ * StorageManager decides the storage helper to use. Saves are handed to a dedicated storage
+ * thread so that slow databases or disks never hold up the thread that finished the update.
  */
 public class StorageManager {
+    private static final int SHUTDOWN_TIMEOUT_SECONDS = 10;
+
     private final Main main;
     private StorageHelper storageHelper;
 
+    // single thread that performs all writes, created when first needed
+    private ExecutorService storageExecutor;
+
+    // storage thread replaced on reload, still finishing its queued saves
+    private ExecutorService retiredExecutor;
+
+    // latest leaderboard waiting to be saved, replaced if a newer one arrives before it is saved
+    private AtomicReference<ArrayList<EntityCache>> pendingSave = new AtomicReference<>();
+
     /**
      * Constructor for StorageManager.
      *
@@ -23,27 +42,220 @@ public class StorageManager {
     }
 
     /**
-     * Initializes all values to default and set storage type.
+     * Initializes all values to default and set storage type. The previous storage helper is
+     * closed on its own storage thread once its queued saves are done, so reloading does not
+     * wait on them.
      */
     public void initializeValues() {
+        retireStorage();
+        StorageHelper helper = null;
         String storageType = main.getOptions().getStorageType().toLowerCase();
         if (storageType.equals("mysql")) {
-            storageHelper = new SqlHelper(main);
+            helper = new SqlHelper(main);
         } else if (storageType.equals("yaml")) {
-            storageHelper = new YamlHelper(main);
+            helper = new YamlHelper(main);
+        } else if (storageType.equals("file")) {
+            helper = new FileHelper(main);
+        } else if (storageType.equals("sqlite")) {
+            helper = new SqliteHelper(main);
+        }
+        synchronized (this) {
+            storageHelper = helper;
         }
     }
 
     /**
-     * Calls the helper to save information to storage.
+     * Queues information to be saved to storage by the storage thread. At most one save waits
+     * in the queue, if a save is still waiting when a newer leaderboard arrives, only the newer
+     * leaderboard is saved.
      *
      * @param EntityCacheList list of entities to store
      */
     public void saveToStorage(ArrayList<EntityCache> EntityCacheList) {
-        // if null means no storage was initialized, so no need to save
-        if (this.storageHelper == null) {
+        StorageHelper helper;
+        AtomicReference<ArrayList<EntityCache>> pending;
+        ExecutorService executor;
+        synchronized (this) {
+            // if null means no storage was initialized, so no need to save
+            if (this.storageHelper == null) {
+                return;
+            }
+            helper = this.storageHelper;
+            pending = this.pendingSave;
+            executor = getStorageExecutor();
+        }
+        if (pending.getAndSet(EntityCacheList) != null) {
+            // a save is already queued and will pick up the newer leaderboard
             return;
         }
-        this.storageHelper.saveToStorage(EntityCacheList);
+        try {
+            executor.execute(() -> savePending(helper, pending));
+        } catch (RejectedExecutionException e) {
+            // storage is shutting down, drop the save so later saves are not blocked
+            pending.set(null);
+        }
+    }
+
+    /**
+     * Loads the last saved leaderboard on the storage thread and passes it to the given
+     * consumer, which is also run on the storage thread.
+     *
+     * @param onLoad consumer of the loaded entities, not called if nothing was loaded
+     */
+    public void loadFromStorage(Consumer<ArrayList<EntityCache>> onLoad) {
+        StorageHelper helper;
+        ExecutorService executor;
+        synchronized (this) {
+            if (this.storageHelper == null) {
+                return;
+            }
+            helper = this.storageHelper;
+            executor = getStorageExecutor();
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    ArrayList<EntityCache> entityCacheList = helper.loadFromStorage();
+                    if (!entityCacheList.isEmpty()) {
+                        onLoad.accept(entityCacheList);
+                    }
+                } catch (RuntimeException e) {
+                    LogManager.error("Failed to load from storage: " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException ignored) {
+        }
+    }
+
+    /**
+     * Loads the last saved wealth of a single entity on the storage thread and passes it to the
+     * given consumer, which is also run on the storage thread.
+     *
+     * @param name name of entity, case insensitive
+     * @param onLoad consumer of the loaded entity, given null if the entity was not found
+     *
+     * @return true if the lookup was queued, false if there is no storage to look up from
+     */
+    public boolean loadEntity(String name, Consumer<EntityCache> onLoad) {
+        StorageHelper helper;
+        ExecutorService executor;
+        synchronized (this) {
+            if (this.storageHelper == null) {
+                return false;
+            }
+            helper = this.storageHelper;
+            executor = getStorageExecutor();
+        }
+        try {
+            executor.execute(() -> {
+                EntityCache eCache = null;
+                try {
+                    eCache = helper.loadEntity(name);
+                } catch (RuntimeException e) {
+                    LogManager.error("Failed to load from storage: " + e.getMessage());
+                }
+                onLoad.accept(eCache);
+            });
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Saves the latest queued leaderboard, runs on the storage thread.
+     *
+     * @param helper storage helper the save was queued for
+     * @param pending queued leaderboard of the storage helper
+     */
+    private void savePending(StorageHelper helper,
+            AtomicReference<ArrayList<EntityCache>> pending) {
+        ArrayList<EntityCache> entityCacheList = pending.getAndSet(null);
+        if (entityCacheList == null) {
+            return;
+        }
+        try {
+            helper.saveToStorage(entityCacheList);
+        } catch (RuntimeException e) {
+            LogManager.error("Failed to save to storage: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the storage thread, creating it if it has been shut down. A new storage thread first
+     * waits for the one it replaced, so two storage helpers never write at the same time.
+     *
+     * @return executor for storage writes
+     */
+    private synchronized ExecutorService getStorageExecutor() {
+        if (storageExecutor == null) {
+            storageExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "SurvivalTop-Storage");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ExecutorService retired = retiredExecutor;
+            retiredExecutor = null;
+            if (retired != null) {
+                storageExecutor.execute(() -> awaitTermination(retired));
+            }
+        }
+        return storageExecutor;
+    }
+
+    /**
+     * Detaches the current storage helper and storage thread without waiting. Saves already
+     * queued still run, after which the storage helper is closed on the same thread.
+     */
+    private synchronized void retireStorage() {
+        StorageHelper helper = storageHelper;
+        ExecutorService executor = storageExecutor;
+        storageHelper = null;
+        storageExecutor = null;
+        pendingSave = new AtomicReference<>();
+        if (executor == null) {
+            if (helper != null) {
+                helper.shutdown();
+            }
+            return;
+        }
+        if (helper != null) {
+            executor.execute(helper::shutdown);
+        }
+        executor.shutdown();
+        retiredExecutor = executor;
+    }
+
+    /**
+     * Waits for a storage thread to finish its queued saves, stopping it if it takes too long.
+     *
+     * @param executor storage thread to wait for
+     */
+    private void awaitTermination(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LogManager.warn("Timed out waiting for storage to finish saving.");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Waits for queued saves to finish and releases resources held by the current storage
+     * helper. Only called when the plugin is disabled, reloads use {@link #initializeValues()}.
+     */
+    public void shutdown() {
+        retireStorage();
+        ExecutorService executor;
+        synchronized (this) {
+            executor = retiredExecutor;
+            retiredExecutor = null;
+        }
+        if (executor != null) {
+            awaitTermination(executor);
+        }
     }
 }
@@ -3,6 +3,8 @@ package tk.taverncraft.survivaltop.storage;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.bukkit.configuration.InvalidConfigurationException;
@@ -11,6 +13,7 @@ import org.bukkit.configuration.file.YamlConfiguration;
 
 import tk.taverncraft.survivaltop.Main;
 import tk.taverncraft.survivaltop.cache.EntityCache;
+import tk.taverncraft.survivaltop.papi.PapiManager;
 
 /**
  * YamlHelper is responsible for reading/writing from yml files.
@@ -40,6 +43,43 @@ public class YamlHelper implements StorageHelper {
         }
     }
 
+    /**
+     * Loads the last saved wealth of all entities from yaml files.
+     *
+     * @return list of saved entities, empty if nothing has been saved
+     */
+    @Override
+    public ArrayList<EntityCache> loadFromStorage() {
+        ArrayList<EntityCache> entities = new ArrayList<>();
+        File[] entityFiles = new File(this.main.getDataFolder(), "entityData").listFiles(
+            (dir, fileName) -> fileName.endsWith(".yml"));
+        if (entityFiles == null) {
+            return entities;
+        }
+        List<String> categories = new ArrayList<>();
+        PapiManager papiManager = main.getPapiManager();
+        if (papiManager != null) {
+            categories = papiManager.getPapiCategories();
+        }
+        for (File entityFile : entityFiles) {
+            FileConfiguration entityConfig = YamlConfiguration.loadConfiguration(entityFile);
+            String entityName = entityConfig.getString("entity-name");
+            if (entityName == null) {
+                continue;
+            }
+            LinkedHashMap<String, Double> papiWealth = new LinkedHashMap<>();
+            for (String category : categories) {
+                papiWealth.put(category, entityConfig.getDouble(category));
+            }
+            entities.add(new EntityCache(entityName, entityConfig.getDouble("balance-wealth"),
+                papiWealth, entityConfig.getDouble("block-wealth"),
+                entityConfig.getDouble("spawner-wealth"),
+                entityConfig.getDouble("container-wealth"),
+                entityConfig.getDouble("inventory-wealth")));
+        }
+        return entities;
+    }
+
     /**
      * Saves individual entities to file.
      *
@@ -1,5 +1,10 @@
 package tk.taverncraft.survivaltop.task;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.bukkit.command.CommandSender;
 import org.bukkit.scheduler.BukkitRunnable;
 import tk.taverncraft.survivaltop.Main;
@@ -13,6 +18,10 @@ public class TaskManager {
     private final TaskQueue taskQueue;
     private final TaskProcessor taskProcessor;
 
+    // dedicated pool for leaderboard tasks, sized by the leaderboard concurrency option
+    private ExecutorService leaderboardExecutor;
+    private int leaderboardExecutorSize;
+
     public TaskManager(Main main) {
         this.main = main;
         taskQueue = new TaskQueue();
@@ -30,6 +39,11 @@ public class TaskManager {
         int id = task.getTaskId();
         taskQueue.addCreator(main.getSenderUuid(sender));
         taskQueue.addTask(id, task);
+        if (type == TaskType.LEADERBOARD) {
+            getLeaderboardExecutor().execute(() ->
+                    taskProcessor.calculateEntityStats(sender, name, id));
+            return;
+        }
         new BukkitRunnable() {
             @Override
             public void run() {
@@ -38,6 +52,32 @@ public class TaskManager {
         }.runTaskAsynchronously(main);
     }
 
+    /**
+     * Gets the pool for running leaderboard tasks, recreating it if the configured
+     * concurrency has changed since it was created.
+     *
+     * @return executor for leaderboard tasks
+     */
+    private synchronized ExecutorService getLeaderboardExecutor() {
+        int size = main.getOptions().getLeaderboardConcurrency();
+        if (leaderboardExecutor != null && leaderboardExecutorSize == size) {
+            return leaderboardExecutor;
+        }
+        if (leaderboardExecutor != null) {
+            leaderboardExecutor.shutdown();
+        }
+        AtomicInteger threadCount = new AtomicInteger(0);
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable,
+                    "SurvivalTop-Leaderboard-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        leaderboardExecutor = Executors.newFixedThreadPool(size, threadFactory);
+        leaderboardExecutorSize = size;
+        return leaderboardExecutor;
+    }
+
     /**
      * Checks if sender has an ongoing calculation.
      *
@@ -55,4 +95,14 @@ public class TaskManager {
     public void stopAllTasks() {
         taskQueue.clear();
     }
+
+    /**
+     * Shuts down the leaderboard task pool, called when the plugin is disabled.
+     */
+    public synchronized void shutdown() {
+        if (leaderboardExecutor != null) {
+            leaderboardExecutor.shutdownNow();
+            leaderboardExecutor = null;
+        }
+    }
 }
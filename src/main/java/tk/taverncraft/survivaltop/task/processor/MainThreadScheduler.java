@@ -0,0 +1,126 @@
+package tk.taverncraft.survivaltop.task.processor;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.logs.LogManager;
+
+/**
+ * Runs work that has to happen on the main thread, such as reading spawners and containers,
+ * spread across ticks so that no more than the configured budget is spent in a single tick.
+ * Jobs are shared by all tasks and processed in the order they were scheduled.
+ */
+public class MainThreadScheduler {
+    private final Main main;
+
+    // jobs waiting to be processed, guarded by this scheduler
+    private final ArrayDeque<Job> jobs = new ArrayDeque<>();
+    private BukkitTask timer;
+
+    /**
+     * Constructor for MainThreadScheduler.
+     *
+     * @param main plugin class
+     */
+    public MainThreadScheduler(Main main) {
+        this.main = main;
+    }
+
+    /**
+     * Schedules a job made up of steps that are run one after another. Each step is given a
+     * deadline in nanoseconds and returns true once it has no work left, or false to be
+     * called again on the next tick. The completion callback runs on the main thread once
+     * every step is done, or once a step throws, in which case the remaining steps are skipped.
+     *
+     * @param steps steps of the job
+     * @param onComplete callback for when the job is done
+     */
+    public synchronized void schedule(List<LongPredicate> steps, Runnable onComplete) {
+        jobs.add(new Job(steps, onComplete));
+        if (timer == null) {
+            timer = Bukkit.getScheduler().runTaskTimer(main, this::runTick, 0, 1);
+        }
+    }
+
+    /**
+     * Processes scheduled jobs until the budget for the current tick runs out.
+     */
+    private void runTick() {
+        long budget = main.getOptions().getMainThreadBudget() * 1_000_000L;
+        if (budget <= 0) {
+            // no budget set, so all work is done within the tick like before
+            budget = Long.MAX_VALUE / 2;
+        }
+        long deadline = System.nanoTime() + budget;
+        while (true) {
+            Job job;
+            synchronized (this) {
+                job = jobs.peek();
+                if (job == null) {
+                    timer.cancel();
+                    timer = null;
+                    return;
+                }
+            }
+            boolean done;
+            try {
+                done = job.run(deadline);
+            } catch (Exception e) {
+                // drop the failed job so it does not block the jobs behind it, the completion
+                // callback still runs so the task finishes with what was calculated so far
+                LogManager.error("Failed main thread step: " + e.getMessage());
+                done = true;
+            }
+            if (!done) {
+                return;
+            }
+            synchronized (this) {
+                jobs.poll();
+            }
+            try {
+                job.onComplete.run();
+            } catch (Exception e) {
+                LogManager.error(e.getMessage());
+            }
+            if (System.nanoTime() - deadline > 0) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Job of steps to run on the main thread.
+     */
+    private static class Job {
+        private final List<LongPredicate> steps;
+        private final Runnable onComplete;
+        private int currentStep;
+
+        private Job(List<LongPredicate> steps, Runnable onComplete) {
+            this.steps = steps;
+            this.onComplete = onComplete;
+        }
+
+        /**
+         * Runs steps of the job until all are done or the deadline has passed.
+         *
+         * @param deadline time in nanoseconds to stop at
+         *
+         * @return true if all steps are done, false otherwise
+         */
+        private boolean run(long deadline) {
+            while (currentStep < steps.size()) {
+                if (!steps.get(currentStep).test(deadline)) {
+                    return false;
+                }
+                currentStep++;
+            }
+            return true;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package tk.taverncraft.survivaltop.task.processor;
 
+import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
@@ -11,18 +12,22 @@ import tk.taverncraft.survivaltop.task.queue.TaskQueue;
 import tk.taverncraft.survivaltop.utils.types.MutableInt;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.function.LongPredicate;
 
 import static tk.taverncraft.survivaltop.task.queue.TaskType.LEADERBOARD;
 
 public class TaskProcessor {
     private final Main main;
     private final TaskQueue taskQueue;
+    private final MainThreadScheduler mainThreadScheduler;
 
     public TaskProcessor(Main main, TaskQueue taskQueue) {
         this.main = main;
         this.taskQueue = taskQueue;
+        this.mainThreadScheduler = new MainThreadScheduler(main);
     }
 
     /**
@@ -89,7 +94,15 @@ public class TaskProcessor {
                                                double balWealth, LinkedHashMap<String, Double> papiWealth, double blockWealth,
                                                double inventoryWealth, HashMap<String, MutableInt> blockCounter,
                                                HashMap<String, MutableInt> inventoryCounter) {
-        new BukkitRunnable() {
+        // spawners and containers are read on the main thread, spread across ticks
+        ArrayList<LongPredicate> steps = new ArrayList<>();
+        if (main.getOptions().spawnerIsIncluded()) {
+            steps.add(deadline -> main.getLandManager().processSpawnerTypes(id, deadline));
+        }
+        if (main.getOptions().containerIsIncluded()) {
+            steps.add(deadline -> main.getLandManager().captureContainerItems(id, deadline));
+        }
+        Runnable onComplete = new Runnable() {
             @Override
             public void run() {
                 double spawnerValue = 0;
@@ -97,12 +110,10 @@ public class TaskProcessor {
                 HashMap<String, MutableInt> spawnerCounter = new HashMap<>();
                 HashMap<String, MutableInt> containerCounter = new HashMap<>();
                 if (main.getOptions().spawnerIsIncluded()) {
-                    main.getLandManager().processSpawnerTypes(id);
                     spawnerValue = main.getLandManager().calculateSpawnerWorth(id);
                     spawnerCounter = main.getLandManager().getSpawnersForGui(id);
                 }
                 if (main.getOptions().containerIsIncluded()) {
-                    main.getLandManager().processContainerItems(id);
                     containerValue = main.getLandManager().calculateContainerWorth(id);
                     containerCounter = main.getLandManager().getContainersForGui(id);
                 }
@@ -137,7 +148,20 @@ public class TaskProcessor {
                     processStatsForChat(sender, name, id, eCache);
                 }
             }
-        }.runTask(main);
+        };
+        if (!main.getOptions().containerIsIncluded()) {
+            mainThreadScheduler.schedule(steps, onComplete);
+            return;
+        }
+
+        // container contents are only copied on the main thread and valued asynchronously
+        mainThreadScheduler.schedule(steps, () -> new BukkitRunnable() {
+            @Override
+            public void run() {
+                main.getLandManager().processContainerItems(id);
+                Bukkit.getScheduler().runTask(main, onComplete);
+            }
+        }.runTaskAsynchronously(main));
     }
 
     /**
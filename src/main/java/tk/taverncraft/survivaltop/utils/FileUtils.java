@@ -0,0 +1,30 @@
+package tk.taverncraft.survivaltop.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Helper functions for writing files safely.
+ */
+public class FileUtils {
+
+    /**
+     * Moves a file into place, atomically if supported by the file system.
+     *
+     * @param source file to move
+     * @param target location to move to
+     *
+     * @throws IOException if the file cannot be moved
+     */
+    public static void moveFile(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
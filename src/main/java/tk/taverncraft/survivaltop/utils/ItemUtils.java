@@ -0,0 +1,163 @@
+package tk.taverncraft.survivaltop.utils;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.block.BlockState;
+import org.bukkit.block.ShulkerBox;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.BlockStateMeta;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import tk.taverncraft.survivaltop.utils.types.MaterialAmounts;
+
+/**
+ * Helper functions for looking into items that hold other items, such as shulker boxes and
+ * bundles.
+ */
+public class ItemUtils {
+    private static final int MAX_DEPTH = 8;
+    private static final int MAX_CACHE_SIZE = 10000;
+    private static final MaterialAmounts EMPTY = new MaterialAmounts();
+
+    private static final Class<?> bundleMetaClass = getBundleMetaClass();
+    private static final Method bundleItemsMethod = getBundleItemsMethod();
+
+    // contents of shulker boxes and bundles mapped to their item meta, since identical filled
+    // items are common and only need to be walked once, only holds fully walked contents
+    private static final ConcurrentHashMap<ItemMeta, MaterialAmounts> contentsCache =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Checks if an item may hold other items, such as a filled shulker box or bundle.
+     *
+     * @param itemStack item to check
+     *
+     * @return true if item may hold other items, false otherwise
+     */
+    public static boolean mayHaveContents(ItemStack itemStack) {
+        if (!itemStack.hasItemMeta()) {
+            return false;
+        }
+        String name = itemStack.getType().name();
+        return name.endsWith("SHULKER_BOX") || name.equals("BUNDLE");
+    }
+
+    /**
+     * Gets every item held within an item, including items within nested shulker boxes and
+     * bundles. Results are cached by item meta and shared, so they should not be modified.
+     *
+     * @param itemStack item to get contents for
+     *
+     * @return materials and amounts held within one of the item
+     */
+    public static MaterialAmounts getContents(ItemStack itemStack) {
+        return getContents(itemStack, 0);
+    }
+
+    /**
+     * Clears cached contents of items.
+     */
+    public static void clearCache() {
+        contentsCache.clear();
+    }
+
+    /**
+     * Gets every item held within an item, stopping at the max depth of nesting.
+     *
+     * @param itemStack item to get contents for
+     * @param depth number of items that the item is nested in
+     *
+     * @return materials and amounts held within one of the item
+     */
+    private static MaterialAmounts getContents(ItemStack itemStack, int depth) {
+        if (depth >= MAX_DEPTH || !mayHaveContents(itemStack)) {
+            return EMPTY;
+        }
+        ItemMeta meta = itemStack.getItemMeta();
+        MaterialAmounts contents = contentsCache.get(meta);
+        if (contents != null) {
+            return contents;
+        }
+        contents = new MaterialAmounts();
+        for (ItemStack item : getHeldItems(meta)) {
+            if (item == null) {
+                continue;
+            }
+            int amount = item.getAmount();
+            contents.add(item.getType(), amount);
+            MaterialAmounts nested = getContents(item, depth + 1);
+            for (int i = 0; i < nested.size(); i++) {
+                contents.add(nested.getMaterial(i), nested.getAmount(i) * amount);
+            }
+        }
+
+        // contents of nested items may be cut off at the max depth, so only the contents of
+        // outermost items are cached
+        if (depth == 0) {
+            if (contentsCache.size() >= MAX_CACHE_SIZE) {
+                contentsCache.clear();
+            }
+            contentsCache.put(meta, contents);
+        }
+        return contents;
+    }
+
+    /**
+     * Gets the items directly held by an item meta.
+     *
+     * @param meta meta of item
+     *
+     * @return items held, which may contain null for empty slots
+     */
+    private static Iterable<ItemStack> getHeldItems(ItemMeta meta) {
+        if (meta instanceof BlockStateMeta && ((BlockStateMeta) meta).hasBlockState()) {
+            BlockState state = ((BlockStateMeta) meta).getBlockState();
+            if (state instanceof ShulkerBox) {
+                return ((ShulkerBox) state).getSnapshotInventory();
+            }
+        }
+        if (bundleItemsMethod != null && bundleMetaClass.isInstance(meta)) {
+            try {
+                @SuppressWarnings("unchecked")
+                List<ItemStack> items = (List<ItemStack>) bundleItemsMethod.invoke(meta);
+                return items;
+            } catch (ReflectiveOperationException e) {
+                return Collections.emptyList();
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Looks up the bundle meta class if the server has it, since bundles do not exist in
+     * older apis.
+     *
+     * @return bundle meta class, or null if not available
+     */
+    private static Class<?> getBundleMetaClass() {
+        try {
+            return Class.forName("org.bukkit.inventory.meta.BundleMeta");
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Looks up the method for getting items of a bundle if the server has it.
+     *
+     * @return bundle items method, or null if not available
+     */
+    private static Method getBundleItemsMethod() {
+        if (bundleMetaClass == null) {
+            return null;
+        }
+        try {
+            return bundleMetaClass.getMethod("getItems");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
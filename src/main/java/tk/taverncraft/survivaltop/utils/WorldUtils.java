@@ -0,0 +1,101 @@
+package tk.taverncraft.survivaltop.utils;
+
+import java.lang.reflect.Method;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.World;
+
+/**
+ * Helper functions for working with world heights and chunk sections. The min height of a world
+ * is looked up through reflection, so older api versions without it still work.
+ */
+public class WorldUtils {
+    private static final Method minHeightMethod = getMinHeightMethod();
+    private static final ConcurrentHashMap<UUID, Integer> minHeights = new ConcurrentHashMap<>();
+
+    /**
+     * Gets the lowest y coordinate of a world. Worlds only go below 0 from 1.17 onwards, where
+     * the method is looked up since it does not exist in older apis.
+     *
+     * @param world world to get min height for
+     *
+     * @return min height of world
+     */
+    public static int getMinHeight(World world) {
+        if (minHeightMethod == null) {
+            return 0;
+        }
+        return minHeights.computeIfAbsent(world.getUID(), k -> {
+            try {
+                return (int) minHeightMethod.invoke(world);
+            } catch (ReflectiveOperationException e) {
+                return 0;
+            }
+        });
+    }
+
+    /**
+     * Gets the y coordinate ranges of a chunk snapshot that are not in empty sections, so that
+     * scans can skip sections containing only air.
+     *
+     * @param snapshot snapshot of chunk
+     * @param world world that the chunk is in
+     * @param minY min y coordinate (inclusive)
+     * @param maxY max y coordinate (exclusive)
+     *
+     * @return pairs of start (inclusive) and end (exclusive) y coordinates
+     */
+    public static int[] getNonEmptyRanges(ChunkSnapshot snapshot, World world, int minY,
+            int maxY) {
+        int sectionOffset = getMinHeight(world) >> 4;
+        int[] ranges = new int[Math.max(0, ((maxY - minY) >> 4) + 2) * 2];
+        int count = 0;
+        int y = minY;
+        while (y < maxY) {
+            int sectionEnd = Math.min(((y >> 4) + 1) << 4, maxY);
+            if (!isSectionEmpty(snapshot, (y >> 4) - sectionOffset)) {
+                if (count > 0 && ranges[count - 1] == y) {
+                    ranges[count - 1] = sectionEnd;
+                } else {
+                    ranges[count++] = y;
+                    ranges[count++] = sectionEnd;
+                }
+            }
+            y = sectionEnd;
+        }
+        int[] nonEmptyRanges = new int[count];
+        System.arraycopy(ranges, 0, nonEmptyRanges, 0, count);
+        return nonEmptyRanges;
+    }
+
+    /**
+     * Checks if a section of a chunk snapshot is empty, treating invalid sections as not empty.
+     *
+     * @param snapshot snapshot of chunk
+     * @param sectionIndex index of section counting from the bottom of the world
+     *
+     * @return true if section only contains air, false otherwise
+     */
+    private static boolean isSectionEmpty(ChunkSnapshot snapshot, int sectionIndex) {
+        try {
+            return snapshot.isSectionEmpty(sectionIndex);
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Looks up the method for getting the min height of a world if the server has it.
+     *
+     * @return min height method, or null if not available
+     */
+    private static Method getMinHeightMethod() {
+        try {
+            return World.class.getMethod("getMinHeight");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package tk.taverncraft.survivaltop.utils.types;
+
+import org.bukkit.World;
+
+/**
+ * Utility class for describing the part of a single chunk that falls within a claim.
+ * Block coordinates are absolute with min values inclusive and max values exclusive.
+ */
+public class ChunkRegion {
+    private final World world;
+    private final int chunkX;
+    private final int chunkZ;
+    private final int minX;
+    private final int maxX;
+    private final int minY;
+    private final int maxY;
+    private final int minZ;
+    private final int maxZ;
+
+    /**
+     * Constructor for ChunkRegion.
+     *
+     * @param world world that the chunk is in
+     * @param chunkX x coordinate of chunk
+     * @param chunkZ z coordinate of chunk
+     * @param minX min x block coordinate (inclusive)
+     * @param maxX max x block coordinate (exclusive)
+     * @param minY min y block coordinate (inclusive)
+     * @param maxY max y block coordinate (exclusive)
+     * @param minZ min z block coordinate (inclusive)
+     * @param maxZ max z block coordinate (exclusive)
+     */
+    public ChunkRegion(World world, int chunkX, int chunkZ, int minX, int maxX, int minY,
+            int maxY, int minZ, int maxZ) {
+        this.world = world;
+        this.chunkX = chunkX;
+        this.chunkZ = chunkZ;
+        this.minX = minX;
+        this.maxX = maxX;
+        this.minY = minY;
+        this.maxY = maxY;
+        this.minZ = minZ;
+        this.maxZ = maxZ;
+    }
+
+    /**
+     * Gets the world that the chunk is in.
+     *
+     * @return world of chunk
+     */
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * Gets the x coordinate of the chunk.
+     *
+     * @return chunk x coordinate
+     */
+    public int getChunkX() {
+        return chunkX;
+    }
+
+    /**
+     * Gets the z coordinate of the chunk.
+     *
+     * @return chunk z coordinate
+     */
+    public int getChunkZ() {
+        return chunkZ;
+    }
+
+    /**
+     * Gets a key that uniquely identifies the chunk within its world.
+     *
+     * @return chunk key
+     */
+    public long getChunkKey() {
+        return getChunkKey(chunkX, chunkZ);
+    }
+
+    /**
+     * Gets a key that uniquely identifies a chunk within its world.
+     *
+     * @param chunkX x coordinate of chunk
+     * @param chunkZ z coordinate of chunk
+     *
+     * @return chunk key
+     */
+    public static long getChunkKey(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Gets the min x block coordinate (inclusive) of the region.
+     *
+     * @return min x block coordinate
+     */
+    public int getMinX() {
+        return minX;
+    }
+
+    /**
+     * Gets the max x block coordinate (exclusive) of the region.
+     *
+     * @return max x block coordinate
+     */
+    public int getMaxX() {
+        return maxX;
+    }
+
+    /**
+     * Gets the min y block coordinate (inclusive) of the region.
+     *
+     * @return min y block coordinate
+     */
+    public int getMinY() {
+        return minY;
+    }
+
+    /**
+     * Gets the max y block coordinate (exclusive) of the region.
+     *
+     * @return max y block coordinate
+     */
+    public int getMaxY() {
+        return maxY;
+    }
+
+    /**
+     * Gets the min z block coordinate (inclusive) of the region.
+     *
+     * @return min z block coordinate
+     */
+    public int getMinZ() {
+        return minZ;
+    }
+
+    /**
+     * Gets the max z block coordinate (exclusive) of the region.
+     *
+     * @return max z block coordinate
+     */
+    public int getMaxZ() {
+        return maxZ;
+    }
+}
@@ -0,0 +1,62 @@
+package tk.taverncraft.survivaltop.utils.types;
+
+import java.util.Arrays;
+
+import org.bukkit.Material;
+
+/**
+ * Compact list of material and amount pairs, used for copying item contents on the main thread
+ * so that they can be valued asynchronously later.
+ */
+public class MaterialAmounts {
+    private Material[] materials = new Material[64];
+    private int[] amounts = new int[64];
+    private int size;
+
+    /**
+     * Adds a material and amount to the list.
+     *
+     * @param material material to add
+     * @param amount amount of material
+     */
+    public void add(Material material, int amount) {
+        if (size == materials.length) {
+            materials = Arrays.copyOf(materials, size * 2);
+            amounts = Arrays.copyOf(amounts, size * 2);
+        }
+        materials[size] = material;
+        amounts[size] = amount;
+        size++;
+    }
+
+    /**
+     * Gets the material at an index.
+     *
+     * @param index index of pair
+     *
+     * @return material at index
+     */
+    public Material getMaterial(int index) {
+        return materials[index];
+    }
+
+    /**
+     * Gets the amount at an index.
+     *
+     * @param index index of pair
+     *
+     * @return amount at index
+     */
+    public int getAmount(int index) {
+        return amounts[index];
+    }
+
+    /**
+     * Gets the number of pairs in the list.
+     *
+     * @return number of pairs
+     */
+    public int size() {
+        return size;
+    }
+}
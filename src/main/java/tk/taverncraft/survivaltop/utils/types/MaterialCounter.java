@@ -0,0 +1,96 @@
+package tk.taverncraft.survivaltop.utils.types;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+import org.bukkit.Material;
+
+/**
+ * Tracks count of materials in a primitive array indexed by material ordinal. Maps keyed by
+ * material names are only created when needed for display or storage.
+ */
+public class MaterialCounter {
+    private final MaterialWorthTable worthTable;
+    private final long[] counts;
+
+    /**
+     * Constructor for MaterialCounter.
+     *
+     * @param worthTable worth table of materials to count
+     */
+    public MaterialCounter(MaterialWorthTable worthTable) {
+        this.worthTable = worthTable;
+        this.counts = new long[worthTable.size()];
+    }
+
+    /**
+     * Increments count of material by 1.
+     *
+     * @param material material to increment count for
+     */
+    public void increment(Material material) {
+        counts[material.ordinal()]++;
+    }
+
+    /**
+     * Increments count of material by given amount.
+     *
+     * @param material material to increment count for
+     * @param amount amount to increment by
+     */
+    public void increment(Material material, long amount) {
+        counts[material.ordinal()] += amount;
+    }
+
+    /**
+     * Gets the count of a material.
+     *
+     * @param material material to get count for
+     *
+     * @return count of material
+     */
+    public long get(Material material) {
+        return counts[material.ordinal()];
+    }
+
+    /**
+     * Adds all counts from another counter into this counter.
+     *
+     * @param other counter to merge from
+     */
+    public void merge(MaterialCounter other) {
+        long[] otherCounts = other.counts;
+        for (int ordinal : worthTable.getOrdinals()) {
+            counts[ordinal] += otherCounts[ordinal];
+        }
+    }
+
+    /**
+     * Gets the total worth of all counted materials.
+     *
+     * @return total worth of counted materials
+     */
+    public double getTotalWorth() {
+        double totalWorth = 0;
+        for (int ordinal : worthTable.getOrdinals()) {
+            // count multiply by worth, then added to total
+            totalWorth += counts[ordinal] * worthTable.getWorth(ordinal);
+        }
+        return totalWorth;
+    }
+
+    /**
+     * Gets the counts as a map of material names, used for GUI and storage.
+     *
+     * @return map of material name to count
+     */
+    public HashMap<String, MutableInt> toCounterMap() {
+        HashMap<String, MutableInt> counter = new LinkedHashMap<>();
+        for (Material material : worthTable.getMaterials()) {
+            MutableInt count = new MutableInt();
+            count.increment((int) Math.min(counts[material.ordinal()], Integer.MAX_VALUE));
+            counter.put(material.name(), count);
+        }
+        return counter;
+    }
+}
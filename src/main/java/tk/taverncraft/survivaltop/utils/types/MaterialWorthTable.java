@@ -0,0 +1,96 @@
+package tk.taverncraft.survivaltop.utils.types;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bukkit.Material;
+
+/**
+ * Provides faster lookups of material worth by indexing values with material ordinals
+ * instead of material names.
+ */
+public class MaterialWorthTable {
+    private final double[] worth;
+    private final boolean[] included;
+    private final Material[] materials;
+    private final int[] ordinals;
+
+    /**
+     * Constructor for MaterialWorthTable.
+     *
+     * @param worthMap map of material names to their values
+     */
+    public MaterialWorthTable(LinkedHashMap<String, Double> worthMap) {
+        int size = Material.values().length;
+        this.worth = new double[size];
+        this.included = new boolean[size];
+        ArrayList<Material> materialList = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : worthMap.entrySet()) {
+            Material material = Material.getMaterial(entry.getKey());
+            if (material == null) {
+                continue;
+            }
+            int ordinal = material.ordinal();
+            worth[ordinal] = entry.getValue();
+            if (!included[ordinal]) {
+                included[ordinal] = true;
+                materialList.add(material);
+            }
+        }
+        this.materials = materialList.toArray(new Material[0]);
+        this.ordinals = new int[materials.length];
+        for (int i = 0; i < materials.length; i++) {
+            ordinals[i] = materials[i].ordinal();
+        }
+    }
+
+    /**
+     * Checks if a material has a worth in this table.
+     *
+     * @param material material to check
+     *
+     * @return true if material is included, false otherwise
+     */
+    public boolean contains(Material material) {
+        return included[material.ordinal()];
+    }
+
+    /**
+     * Gets the worth of a material by its ordinal.
+     *
+     * @param ordinal ordinal of material
+     *
+     * @return worth of material, or 0 if not included
+     */
+    public double getWorth(int ordinal) {
+        return worth[ordinal];
+    }
+
+    /**
+     * Gets the materials included in this table, in the order they were configured.
+     *
+     * @return included materials
+     */
+    public Material[] getMaterials() {
+        return materials;
+    }
+
+    /**
+     * Gets the ordinals of materials included in this table, in the order they were configured.
+     *
+     * @return ordinals of included materials
+     */
+    public int[] getOrdinals() {
+        return ordinals;
+    }
+
+    /**
+     * Gets the number of slots needed to index every material by ordinal.
+     *
+     * @return size of table
+     */
+    public int size() {
+        return worth.length;
+    }
+}
@@ -0,0 +1,132 @@
+package tk.taverncraft.survivaltop.storage;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import tk.taverncraft.survivaltop.Main;
+import tk.taverncraft.survivaltop.cache.EntityCache;
+import tk.taverncraft.survivaltop.config.Options;
+import tk.taverncraft.survivaltop.papi.PapiManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for SqliteHelper against a temporary survtop.db.
+ */
+public class SqliteHelperTest {
+    @TempDir
+    File dataFolder;
+
+    private Main main;
+    private SqliteHelper sqliteHelper;
+
+    @BeforeEach
+    public void setUp() {
+        Options options = mock(Options.class);
+        when(options.getTableName()).thenReturn("survtop");
+        when(options.getStorageBatchSize()).thenReturn(2);
+        when(options.groupIsEnabled()).thenReturn(false);
+
+        main = mock(Main.class);
+        when(main.getDataFolder()).thenReturn(dataFolder);
+        when(main.getOptions()).thenReturn(options);
+        sqliteHelper = new SqliteHelper(main);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        sqliteHelper.shutdown();
+    }
+
+    @Test
+    public void loadBeforeSaveIsEmpty() {
+        assertTrue(sqliteHelper.loadFromStorage().isEmpty());
+        assertNull(sqliteHelper.loadEntity("Steve"));
+        assertFalse(new File(dataFolder, "survtop.db").exists());
+    }
+
+    @Test
+    public void saveThenLoadOrdersByTotalWealth() {
+        sqliteHelper.saveToStorage(entities(
+                entity("Alex", 10, 5),
+                entity("Steve", 100, 50),
+                entity("Herobrine", 50, 0)));
+
+        ArrayList<EntityCache> loaded = sqliteHelper.loadFromStorage();
+        assertEquals(3, loaded.size());
+        assertEquals("Steve", loaded.get(0).getName());
+        assertEquals("Herobrine", loaded.get(1).getName());
+        assertEquals("Alex", loaded.get(2).getName());
+        assertEquals(100, loaded.get(0).getBalWealth(), 0.001);
+        assertEquals(50, loaded.get(0).getBlockWealth(), 0.001);
+        assertEquals(150, (double) loaded.get(0).getTotalWealth(), 0.001);
+    }
+
+    @Test
+    public void loadEntityIgnoresCase() {
+        sqliteHelper.saveToStorage(entities(entity("Steve", 100, 50)));
+
+        EntityCache eCache = sqliteHelper.loadEntity("STEVE");
+        assertNotNull(eCache);
+        assertEquals("Steve", eCache.getName());
+        assertEquals(150, (double) eCache.getTotalWealth(), 0.001);
+        assertNotNull(sqliteHelper.loadEntity("steve"));
+        assertNull(sqliteHelper.loadEntity("Alex"));
+    }
+
+    @Test
+    public void savingNewPapiCategoryAddsColumn() {
+        sqliteHelper.saveToStorage(entities(entity("Steve", 100, 50)));
+
+        PapiManager papiManager = mock(PapiManager.class);
+        when(papiManager.getPapiCategories()).thenReturn(
+                new ArrayList<>(Collections.singletonList("mcmmo-power")));
+        when(main.getPapiManager()).thenReturn(papiManager);
+        LinkedHashMap<String, Double> papiWealth = new LinkedHashMap<>();
+        papiWealth.put("mcmmo-power", 25.0);
+        sqliteHelper.saveToStorage(entities(new EntityCache("Steve", 100, papiWealth, 50, 0, 0,
+                0)));
+
+        EntityCache eCache = sqliteHelper.loadEntity("Steve");
+        assertNotNull(eCache);
+        assertEquals(25, (double) eCache.getPapiWealth().get("mcmmo-power"), 0.001);
+        assertEquals(175, (double) eCache.getTotalWealth(), 0.001);
+    }
+
+    @Test
+    public void entitiesMissingFromLaterSaveAreRemoved() {
+        sqliteHelper.saveToStorage(entities(
+                entity("Alex", 10, 5),
+                entity("Steve", 100, 50),
+                entity("Herobrine", 50, 0)));
+        sqliteHelper.saveToStorage(entities(entity("Steve", 120, 50)));
+
+        ArrayList<EntityCache> loaded = sqliteHelper.loadFromStorage();
+        assertEquals(1, loaded.size());
+        assertEquals("Steve", loaded.get(0).getName());
+        assertEquals(170, (double) loaded.get(0).getTotalWealth(), 0.001);
+        assertNull(sqliteHelper.loadEntity("Alex"));
+    }
+
+    private static EntityCache entity(String name, double balWealth, double blockWealth) {
+        return new EntityCache(name, balWealth, new LinkedHashMap<>(), blockWealth, 0, 0, 0);
+    }
+
+    private static ArrayList<EntityCache> entities(EntityCache... entityCaches) {
+        return new ArrayList<>(Arrays.asList(entityCaches));
+    }
+}